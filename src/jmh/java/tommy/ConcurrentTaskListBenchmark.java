@@ -0,0 +1,73 @@
+package tommy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import tommy.task.Task;
+import tommy.task.Todo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read throughput of {@link ConcurrentTaskList} as reader threads are added.
+ * Run with {@code -t 1}, {@code -t 2}, {@code -t 4}, ... to see the read-only
+ * benchmarks scale; the {@code mixed} group keeps one writer busy next to
+ * three readers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentTaskListBenchmark {
+
+    @Param({"10000"})
+    private int taskCount;
+
+    private ConcurrentTaskList list;
+
+    @Setup
+    public void setUp() {
+        list = new ConcurrentTaskList();
+        for (int i = 0; i < taskCount; i++) {
+            list.add(new Todo("task " + i + (i % 100 == 0 ? " report" : "")));
+        }
+        list.findTasks("report");
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int snapshotRead() {
+        return list.getTasks().size();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int find() {
+        return list.findTasks("report").size();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public void mixedList(Blackhole blackhole) {
+        for (Task task : list.getTasks()) {
+            blackhole.consume(task);
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Task mixedWrite() {
+        list.add(new Todo("extra task"));
+        return list.remove(list.size() - 1);
+    }
+}
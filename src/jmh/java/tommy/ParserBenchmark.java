@@ -0,0 +1,41 @@
+package tommy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tommy.task.Task;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link Parser#parseTaskFromFile} for one data file line, cycling
+ * through {@value #LINE_COUNT} generated lines of each task type mix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+    private static final int LINE_COUNT = 1024;
+
+    @Param({"TODOS", "DEADLINES", "EVENTS", "MIXED"})
+    private TaskData.Mix mix;
+
+    private String[] lines;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        lines = TaskData.lines(LINE_COUNT, mix);
+    }
+
+    @Benchmark
+    public Task parseTaskFromFile() throws TommyException {
+        next = (next + 1) & (LINE_COUNT - 1);
+        return Parser.parseTaskFromFile(lines[next]);
+    }
+}
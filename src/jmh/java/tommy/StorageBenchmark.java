@@ -0,0 +1,71 @@
+package tommy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import tommy.task.Task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link Storage#load()} and {@link Storage#save} of a text data file of
+ * {@code taskCount} generated tasks. {@code save} rewrites and syncs the whole
+ * file, as the journal compaction does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int taskCount;
+
+    @Param({"MIXED"})
+    private TaskData.Mix mix;
+
+    private Path dataDir;
+    private Storage loadStorage;
+    private Storage saveStorage;
+    private TaskList list;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("tommy-storage");
+        Path file = dataDir.resolve("load.txt");
+        TaskData.writeDataFile(file, taskCount, mix);
+        loadStorage = new Storage(file.toString());
+        saveStorage = new Storage(dataDir.resolve("save.txt").toString());
+        list = new TaskList(TaskData.tasks(taskCount, mix));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Task> load() throws TommyException {
+        return loadStorage.load();
+    }
+
+    @Benchmark
+    public void save() throws TommyException {
+        saveStorage.save(list);
+    }
+}
@@ -0,0 +1,99 @@
+package tommy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import tommy.task.Deadline;
+import tommy.task.Event;
+import tommy.task.Task;
+import tommy.task.Todo;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to load a text data file of {@code lineCount} generated tasks (a
+ * {@link TaskData.Mix#MIXED} of todos, deadlines and events). {@code scanner} is the loader {@link Storage} uses;
+ * {@code splitLines} is the previous loader ({@code FileReader} lines split with
+ * a regex), kept as the baseline. Divide {@code lineCount} by the score for lines/sec.
+ * {@code chunked} always parses 1 MB chunks on the common fork-join pool; run it with
+ * {@code -jvmArgs -Djava.util.concurrent.ForkJoinPool.common.parallelism=N} to see
+ * how it scales with cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageLoadBenchmark {
+
+    @Param({"1000000", "3000000"})
+    private int lineCount;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("tommy-load", ".txt");
+        TaskData.writeDataFile(file, lineCount, TaskData.Mix.MIXED);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<Task> scanner() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        TaskFileScanner.read(file, tasks);
+        return tasks;
+    }
+
+    @Benchmark
+    public List<Task> chunked() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        TaskFileScanner.read(file, tasks, ForkJoinPool.commonPool(), TaskFileScanner.MIN_CHUNK_SIZE);
+        return tasks;
+    }
+
+    @Benchmark
+    public List<Task> splitLines() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(file.toFile()))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(" \\| ");
+                Task task;
+                switch (parts[0]) {
+                    case "T":
+                        task = new Todo(parts[2]);
+                        break;
+                    case "D":
+                        task = new Deadline(parts[2], LocalDate.parse(parts[3]));
+                        break;
+                    default:
+                        task = new Event(parts[2], parts[3], parts[4]);
+                        break;
+                }
+                if (parts[1].equals("1")) {
+                    task.markDone();
+                }
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,185 @@
+package tommy;
+
+import tommy.task.Deadline;
+import tommy.task.Event;
+import tommy.task.Task;
+import tommy.task.Todo;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates task lists and data files for the benchmarks.
+ *
+ * <p>Data is random but seeded, so every run (and every release) measures the
+ * same tasks. Descriptions are two to five words from a small vocabulary, and
+ * one task in a hundred contains {@link #KEYWORD}, so searches for it return
+ * about 1% of the list. Deadlines and events fall within two years of
+ * {@link #START}, and events last one to three hours.
+ *
+ * <p>Descriptions normally end in the task's number, so no two are equal. Data
+ * files can instead use {@link #PHRASE_COUNT} common phrases, repeated across
+ * the list the way "standup" or "review PR" are in real lists.
+ */
+public final class TaskData {
+    /** Word that one task in a hundred contains. */
+    public static final String KEYWORD = "report";
+    /** Number of distinct descriptions in data files written with repeated descriptions. */
+    public static final int PHRASE_COUNT = 1000;
+    /** Earliest date a generated deadline or event can have. */
+    public static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private static final long SEED = 42;
+    private static final int DAYS = 730;
+    private static final String[] WORDS = {
+        "read", "book", "meeting", "project", "review", "call", "email", "plan", "team", "lunch",
+        "write", "draft", "budget", "client", "update", "gym", "groceries", "taxes", "trip", "code",
+    };
+    private static final String[] PHRASES = phrases();
+
+    /**
+     * Proportions of todos, deadlines and events in generated data.
+     */
+    public enum Mix {
+        TODOS(100, 0),
+        DEADLINES(0, 100),
+        EVENTS(0, 0),
+        MIXED(50, 30);
+
+        private final int todoPercent;
+        private final int deadlinePercent;
+
+        Mix(int todoPercent, int deadlinePercent) {
+            this.todoPercent = todoPercent;
+            this.deadlinePercent = deadlinePercent;
+        }
+    }
+
+    private TaskData() {
+    }
+
+    /**
+     * Returns {@code count} generated tasks.
+     *
+     * @param count number of tasks
+     * @param mix   proportions of task types
+     * @return a new modifiable list
+     */
+    public static List<Task> tasks(int count, Mix mix) {
+        Random random = new Random(SEED);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(task(random, mix, i));
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the data file lines of {@code count} generated tasks, in the
+     * same order as {@link #tasks}.
+     *
+     * @param count number of lines
+     * @param mix   proportions of task types
+     * @return the lines, without line breaks
+     */
+    public static String[] lines(int count, Mix mix) {
+        Random random = new Random(SEED);
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = task(random, mix, i).toFileString();
+        }
+        return lines;
+    }
+
+    /**
+     * Writes a text data file of {@code count} generated tasks, in the same
+     * order as {@link #tasks}. Tasks are written as they are generated, so
+     * large files do not need the whole list in memory.
+     *
+     * @param file  file to create or replace
+     * @param count number of tasks
+     * @param mix   proportions of task types
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeDataFile(Path file, int count, Mix mix) throws IOException {
+        writeDataFile(file, count, mix, false);
+    }
+
+    /**
+     * Writes a text data file of {@code count} generated tasks, optionally with
+     * descriptions drawn from {@link #PHRASE_COUNT} common phrases.
+     *
+     * @param file       file to create or replace
+     * @param count      number of tasks
+     * @param mix        proportions of task types
+     * @param isRepeated true to repeat common descriptions instead of numbering them
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeDataFile(Path file, int count, Mix mix, boolean isRepeated) throws IOException {
+        Random random = new Random(SEED);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < count; i++) {
+                String description = isRepeated ? PHRASES[random.nextInt(PHRASE_COUNT)] : description(random, i);
+                out.write(task(random, mix, description).toFileString());
+                out.newLine();
+            }
+        }
+    }
+
+    private static Task task(Random random, Mix mix, int i) {
+        return task(random, mix, description(random, i));
+    }
+
+    private static Task task(Random random, Mix mix, String description) {
+        int type = random.nextInt(100);
+        Task task;
+        if (type < mix.todoPercent) {
+            task = new Todo(description);
+        } else if (type < mix.todoPercent + mix.deadlinePercent) {
+            task = new Deadline(description, START.plusDays(random.nextInt(DAYS)));
+        } else {
+            LocalDate day = START.plusDays(random.nextInt(DAYS));
+            int hour = 8 + random.nextInt(10);
+            int hours = 1 + random.nextInt(3);
+            task = new Event(description, String.format("%s %02d:00", day, hour),
+                    String.format("%02d:00", hour + hours));
+        }
+        if (random.nextInt(4) == 0) {
+            task.markDone();
+        }
+        return task;
+    }
+
+    private static String[] phrases() {
+        Random random = new Random(SEED);
+        String[] phrases = new String[PHRASE_COUNT];
+        for (int i = 0; i < PHRASE_COUNT; i++) {
+            StringBuilder sb = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+            int wordCount = 1 + random.nextInt(3);
+            for (int w = 0; w < wordCount; w++) {
+                sb.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            phrases[i] = sb.append(' ').append(i).toString();
+        }
+        return phrases;
+    }
+
+    private static String description(Random random, int i) {
+        StringBuilder sb = new StringBuilder();
+        int wordCount = 2 + random.nextInt(4);
+        for (int w = 0; w < wordCount; w++) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        if (i % 100 == 0) {
+            sb.append(KEYWORD).append(' ');
+        }
+        return sb.append(i).toString();
+    }
+}
@@ -0,0 +1,167 @@
+package tommy;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tommy.task.Deadline;
+import tommy.task.Event;
+import tommy.task.Task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap retained per task by a list of {@code taskCount} tasks loaded from a text
+ * data file with {@link TaskData#PHRASE_COUNT} repeated descriptions. The figure
+ * is the secondary result {@code bytesPerTask}; the score is only the load time.
+ * {@code compact} is the list {@link Storage#load()} returns; {@code compactWithoutDedup}
+ * is the same with string sharing turned off ({@code -Dtommy.dedup=false});
+ * {@code legacy} copies the loaded tasks into the previous layout (a boolean done
+ * flag, {@code LocalDate} and {@code LocalDateTime} objects, and a string per
+ * field), kept as the baseline. Each fork measures one load, after a full GC;
+ * run with {@code -PjmhIncludes=TaskFootprintBenchmark -PjmhHeap=4g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class TaskFootprintBenchmark {
+
+    @Param({"1000000"})
+    private int taskCount;
+
+    private Path file;
+
+    /**
+     * Bytes retained per task, reported next to the load time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long bytesPerTask;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("tommy-footprint", ".txt");
+        TaskData.writeDataFile(file, taskCount, TaskData.Mix.MIXED, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Object compact(Footprint footprint) throws TommyException {
+        long before = usedHeap();
+        List<Task> tasks = new Storage(file.toString(), false).load();
+        footprint.bytesPerTask = (usedHeap() - before) / taskCount;
+        return tasks;
+    }
+
+    @Benchmark
+    @Fork(jvmArgsPrepend = "-Dtommy.dedup=false")
+    public Object compactWithoutDedup(Footprint footprint) throws TommyException {
+        return compact(footprint);
+    }
+
+    @Benchmark
+    public Object legacy(Footprint footprint) throws TommyException {
+        long before = usedHeap();
+        List<LegacyTask> tasks = toLegacy(new Storage(file.toString(), false).load());
+        footprint.bytesPerTask = (usedHeap() - before) / taskCount;
+        return tasks;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static List<LegacyTask> toLegacy(List<Task> tasks) {
+        List<LegacyTask> legacy = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            String description = copyOf(task.getDescription());
+            LegacyTask copy;
+            if (task instanceof Deadline) {
+                copy = new LegacyDeadline(description, LocalDate.ofEpochDay(((Deadline) task).getByDay()));
+            } else if (task instanceof Event) {
+                Event event = (Event) task;
+                copy = new LegacyEvent(description, copyOf(event.getFrom()), copyOf(event.getTo()),
+                        event.getStart(), event.getEnd());
+            } else {
+                copy = new LegacyTask(description);
+            }
+            copy.isDone = task.getDone();
+            copy.id = task.getId();
+            legacy.add(copy);
+        }
+        return legacy;
+    }
+
+    /**
+     * Returns an equal string with its own characters, as the old loader made for every field it read.
+     */
+    private static String copyOf(String text) {
+        return new String(text.toCharArray());
+    }
+
+    /** Fields of {@link Task} before the compact layout. */
+    private static class LegacyTask {
+        private final String description;
+        private boolean isDone;
+        private int id;
+
+        LegacyTask(String description) {
+            this.description = description;
+        }
+    }
+
+    /** Fields of {@link Deadline} before the compact layout. */
+    private static final class LegacyDeadline extends LegacyTask {
+        private final LocalDate by;
+
+        LegacyDeadline(String description, LocalDate by) {
+            super(description);
+            this.by = by;
+        }
+    }
+
+    /** Fields of {@link Event} before the compact layout. */
+    private static final class LegacyEvent extends LegacyTask {
+        private final String from;
+        private final String to;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        LegacyEvent(String description, String from, String to, LocalDateTime start, LocalDateTime end) {
+            super(description);
+            this.from = from;
+            this.to = to;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package tommy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tommy.task.Task;
+import tommy.task.Todo;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskList} operations on lists of {@code taskCount} generated tasks.
+ * The search index is built during setup, so {@code find*} measure lookups
+ * only. The add/remove benchmarks keep the list size constant: one adds and
+ * removes the last task, the other removes the first task and adds it back
+ * at the end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskListBenchmark {
+    private static final int RANK_LIMIT = 50;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int taskCount;
+
+    @Param({"MIXED"})
+    private TaskData.Mix mix;
+
+    private TaskList list;
+    private final Task extra = new Todo("extra task");
+
+    @Setup
+    public void setUp() {
+        list = new TaskList(TaskData.tasks(taskCount, mix));
+        list.findTasks(TaskData.KEYWORD);
+    }
+
+    @Benchmark
+    public List<Task> find() {
+        return list.findTasks(TaskData.KEYWORD);
+    }
+
+    @Benchmark
+    public List<Task> findMiss() {
+        return list.findTasks("nothing matches this");
+    }
+
+    @Benchmark
+    public List<Task> findRanked() {
+        return list.findTasks(TaskData.KEYWORD + " review", RANK_LIMIT);
+    }
+
+    @Benchmark
+    public Task addRemoveLast() {
+        list.add(extra);
+        return list.remove(list.size() - 1);
+    }
+
+    @Benchmark
+    public Task removeFirstAddLast() {
+        Task first = list.remove(0);
+        list.add(first);
+        return first;
+    }
+}
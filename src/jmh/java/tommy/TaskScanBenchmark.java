@@ -0,0 +1,59 @@
+package tommy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tommy.task.Task;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans of a {@link TaskList} of {@code taskCount} generated tasks by status,
+ * type and due date, with the tasks held in an {@code ArrayList} (walking the
+ * task objects) or in a {@link ColumnarTaskList} (reading its columns).
+ * {@code countUndoneDeadlinesBefore} uses a cutoff a year after {@link TaskData#START},
+ * so about half of the deadlines are before it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskScanBenchmark {
+    private static final LocalDate CUTOFF = TaskData.START.plusYears(1);
+
+    @Param({"100000", "1000000"})
+    private int taskCount;
+
+    @Param({"ARRAY", "COLUMNAR"})
+    private String backend;
+
+    private TaskList list;
+
+    @Setup
+    public void setUp() {
+        List<Task> tasks = TaskData.tasks(taskCount, TaskData.Mix.MIXED);
+        list = new TaskList(backend.equals("COLUMNAR") ? new ColumnarTaskList(tasks) : tasks);
+        list.getNextId();
+    }
+
+    @Benchmark
+    public int countUndoneDeadlinesBefore() {
+        return list.countUndoneDeadlinesBefore(CUTOFF);
+    }
+
+    @Benchmark
+    public List<Task> findUndone() {
+        return list.findByStatus(false);
+    }
+
+    @Benchmark
+    public List<Task> findDeadlines() {
+        return list.findByType('D');
+    }
+}
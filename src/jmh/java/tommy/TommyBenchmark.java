@@ -0,0 +1,81 @@
+package tommy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end cost of {@link Tommy#getResponse} on a list of {@code taskCount}
+ * generated tasks: parsing the command, running it, saving any change and
+ * formatting the reply. Changes are written synchronously (no write-behind),
+ * so {@code addDelete} includes two journal appends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TommyBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int taskCount;
+
+    @Param({"MIXED"})
+    private TaskData.Mix mix;
+
+    private Path dataDir;
+    private Tommy tommy;
+    private String deleteLast;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("tommy-e2e");
+        Path file = dataDir.resolve("tommy.txt");
+        TaskData.writeDataFile(file, taskCount, mix);
+        tommy = new Tommy(file.toString(), 0);
+        tommy.getResponse("find " + TaskData.KEYWORD);
+        deleteLast = "delete " + (taskCount + 1);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        tommy.close();
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public String list() {
+        return tommy.getResponse("list");
+    }
+
+    @Benchmark
+    public String find() {
+        return tommy.getResponse("find " + TaskData.KEYWORD);
+    }
+
+    @Benchmark
+    public String due() {
+        return tommy.getResponse("due between 2024-06-01 and 2024-06-07");
+    }
+
+    @Benchmark
+    public String addDelete() {
+        tommy.getResponse("todo benchmark task");
+        return tommy.getResponse(deleteLast);
+    }
+}
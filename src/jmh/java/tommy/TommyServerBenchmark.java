@@ -0,0 +1,91 @@
+package tommy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for {@link TommyServer}: each invocation has {@code clients}
+ * concurrent clients send {@value #REQUESTS_PER_CLIENT} read-only commands
+ * each against a server holding 10,000 tasks. Requests per second is
+ * {@code clients * REQUESTS_PER_CLIENT / score}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TommyServerBenchmark {
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int TASK_COUNT = 10_000;
+
+    @Param({"1", "100", "500"})
+    private int clients;
+
+    private Path dataDir;
+    private TommyServer server;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("tommy-server");
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            data.append("T | 0 | task ").append(i).append(i % 100 == 0 ? " report" : "").append('\n');
+        }
+        Path file = dataDir.resolve("tommy.txt");
+        Files.writeString(file, data);
+
+        server = new TommyServer(new Tommy(file.toString()), 0);
+        server.start();
+        client = HttpClient.newBuilder().executor(TommyServer.newConnectionExecutor()).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/"))
+                .POST(HttpRequest.BodyPublishers.ofString("find report"))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.stop();
+        try (var files = Files.walk(dataDir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int concurrentClients() {
+        CompletableFuture<?>[] running = new CompletableFuture<?>[clients];
+        for (int i = 0; i < clients; i++) {
+            running[i] = sendSequentially(REQUESTS_PER_CLIENT);
+        }
+        CompletableFuture.allOf(running).join();
+        return running.length;
+    }
+
+    /**
+     * Sends requests one after another, the way a single client would.
+     */
+    private CompletableFuture<Void> sendSequentially(int remaining) {
+        if (remaining == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenCompose(response -> sendSequentially(remaining - 1));
+    }
+}
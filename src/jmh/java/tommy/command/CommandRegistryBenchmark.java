@@ -0,0 +1,58 @@
+package tommy.command;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tommy.TommyException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of dispatching one command as the number of registered
+ * commands grows. {@code registry} should stay flat; {@code startsWithChain}
+ * reproduces the old if/else chain for comparison and grows linearly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandRegistryBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int commandCount;
+
+    private CommandRegistry registry;
+    private String[] words;
+    private String input;
+
+    @Setup
+    public void setUp() {
+        registry = new CommandRegistry();
+        words = new String[commandCount];
+        for (int i = 0; i < commandCount; i++) {
+            words[i] = "command" + i;
+            registry.register(words[i], arguments -> arguments);
+        }
+        // The last command is the worst case for a linear chain.
+        input = words[commandCount - 1] + " 42";
+    }
+
+    @Benchmark
+    public String registry() throws TommyException {
+        return registry.execute(input);
+    }
+
+    @Benchmark
+    public String startsWithChain() {
+        for (String word : words) {
+            if (input.startsWith(word + " ")) {
+                return input.replaceFirst(word, "").trim();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,414 @@
+package tommy;
+
+import tommy.task.Deadline;
+import tommy.task.Event;
+import tommy.task.Task;
+import tommy.task.Todo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact binary task file that is read through a memory mapping.
+ *
+ * <p>Layout: a fixed header, one fixed-size record per task, then a heap of
+ * UTF-8 strings. A record holds the type tag, the done flag and heap offsets
+ * (or the epoch day of a deadline) and the task's ID, so opening a file only
+ * maps it and checks the header; individual tasks are decoded when they are
+ * first accessed. Files written before tasks had IDs have zeros where the IDs
+ * go; their tasks take their 1-based record number as ID.
+ *
+ * <p>Windows refuses to replace a file while a mapping of it is open, so a new
+ * snapshot of the same list is put in place between {@link #unmapForReplace()}
+ * and {@link #remap(Path)}. Records keep the numbers they had in the file first
+ * opened; after a remap they are found in the new file by ID.
+ */
+public class BinaryTaskFile {
+    private static final int MAGIC = 0x544D5942; // "TMYB"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int RECORD_SIZE = 32;
+
+    private static final int TYPE = 0;
+    private static final int DONE = 1;
+    private static final int DESC_OFFSET = 4;
+    private static final int DESC_LENGTH = 8;
+    private static final int FIRST_OFFSET = 12;
+    private static final int FIRST_LENGTH = 16;
+    private static final int SECOND_OFFSET = 20;
+    private static final int SECOND_LENGTH = 24;
+    private static final int ID = 28;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int count;
+    private final long seq;
+    private final int nextId;
+    /** The mapped file, or null while it is being replaced or after {@link #close()}. */
+    private ByteBuffer buffer;
+    private int mappedCount;
+    private int heapStart;
+    /** Record number in the mapped file of each record of the file first opened, or null if they are the same. */
+    private int[] mappedRecords;
+    /** IDs of the records, kept from {@link #unmapForReplace()} until {@link #remap(Path)}. */
+    private int[] replacedIds;
+
+    private BinaryTaskFile(ByteBuffer buffer, int count, long seq, int nextId) {
+        this.count = count;
+        this.seq = seq;
+        this.nextId = nextId;
+        setMapping(buffer, count);
+    }
+
+    /**
+     * Maps the given file and validates its header. No task is decoded.
+     *
+     * @param path path to a binary task file
+     * @return the opened file
+     * @throws IOException if the file cannot be mapped
+     * @throws TommyException if the header is missing or invalid
+     */
+    public static BinaryTaskFile open(Path path) throws IOException, TommyException {
+        MappedByteBuffer buffer = map(path);
+        int count = buffer.getInt(8);
+        return new BinaryTaskFile(buffer, count, buffer.getLong(16), Math.max(buffer.getInt(12), count + 1));
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException, TommyException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new TommyException("Corrupted data file");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            int count = buffer.getInt(8);
+            if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION || count < 0 || buffer.getInt(12) < 0
+                    || HEADER_SIZE + (long) count * RECORD_SIZE > fileSize) {
+                unmap(buffer);
+                throw new TommyException("Corrupted data file");
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * Returns whether the given file starts with the binary task file header.
+     *
+     * @param path path to a data file
+     * @return true if the file is a binary task file
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isBinary(Path path) throws IOException {
+        if (!Files.exists(path) || Files.size(path) < HEADER_SIZE) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            channel.read(magic, 0);
+            return magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Returns the number of tasks in the file.
+     *
+     * @return number of task records
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the last journal sequence number contained in the file.
+     *
+     * @return journal sequence number stored in the header
+     */
+    public long getSeq() {
+        return seq;
+    }
+
+    /**
+     * Returns the ID the next task added to the list will get.
+     *
+     * @return a number greater than the ID of every task in the file
+     */
+    public int getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Returns the ID of the task stored in the given record, without decoding it.
+     *
+     * @param index 0-based record number
+     * @return the task's ID
+     */
+    public int idOf(int index) {
+        assert index >= 0 && index < count : "Record index out of bounds";
+        lock.readLock().lock();
+        try {
+            return storedId(mappedRecord(index));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Decodes the task stored in the given record.
+     *
+     * @param index 0-based record number
+     * @return a newly created task
+     */
+    public Task decode(int index) {
+        assert index >= 0 && index < count : "Record index out of bounds";
+        lock.readLock().lock();
+        try {
+            return decodeMapped(mappedRecord(index));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Task decodeMapped(int record) {
+        int base = HEADER_SIZE + record * RECORD_SIZE;
+        String description = readString(base + DESC_OFFSET, base + DESC_LENGTH);
+        Task task;
+        switch (buffer.get(base + TYPE)) {
+            case 'D':
+                task = new Deadline(description, LocalDate.ofEpochDay(buffer.getInt(base + FIRST_OFFSET)));
+                break;
+            case 'E':
+                task = new Event(description, readString(base + FIRST_OFFSET, base + FIRST_LENGTH),
+                        readString(base + SECOND_OFFSET, base + SECOND_LENGTH));
+                break;
+            default:
+                task = new Todo(description);
+                break;
+        }
+        if (buffer.get(base + DONE) != 0) {
+            task.markDone();
+        }
+        task.setId(storedId(record));
+        return task;
+    }
+
+    /* ================= REPLACING THE FILE ================= */
+
+    /**
+     * Unmaps the file so that a new snapshot can be renamed over it. Until
+     * {@link #remap(Path)} is called by the same thread, other readers wait.
+     */
+    void unmapForReplace() {
+        lock.writeLock().lock();
+        if (buffer == null) {
+            return;
+        }
+        replacedIds = new int[count];
+        for (int index = 0; index < count; index++) {
+            int record = mappedRecords == null ? index : mappedRecords[index];
+            replacedIds[index] = record < 0 ? 0 : storedId(record);
+        }
+        unmap(buffer);
+        buffer = null;
+    }
+
+    /**
+     * Maps the file that replaced this one (or this one again, if replacing it
+     * failed) and lets readers in again. Records that are not yet decoded must
+     * hold the same tasks in the new file, as they do in a compacted snapshot
+     * of the list; the file's tasks must be in ID order.
+     *
+     * @param path path to the file now in place
+     * @throws IOException if the file cannot be mapped
+     * @throws TommyException if the file is not a binary task file
+     */
+    void remap(Path path) throws IOException, TommyException {
+        assert lock.isWriteLockedByCurrentThread() : "remap() follows unmapForReplace()";
+        try {
+            if (replacedIds == null) {
+                return;
+            }
+            MappedByteBuffer mapped = map(path);
+            setMapping(mapped, mapped.getInt(8));
+            int[] records = new int[count];
+            for (int index = 0; index < count; index++) {
+                records[index] = replacedIds[index] == 0 ? -1 : findRecord(replacedIds[index]);
+            }
+            mappedRecords = records;
+        } finally {
+            replacedIds = null;
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Unmaps the file. Tasks decoded so far stay usable; decoding more fails.
+     */
+    void close() {
+        lock.writeLock().lock();
+        try {
+            if (buffer != null) {
+                unmap(buffer);
+                buffer = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void setMapping(ByteBuffer mapped, int records) {
+        buffer = mapped;
+        mappedCount = records;
+        heapStart = HEADER_SIZE + records * RECORD_SIZE;
+    }
+
+    private int mappedRecord(int index) {
+        if (buffer == null) {
+            throw new IllegalStateException("Task file is closed");
+        }
+        int record = mappedRecords == null ? index : mappedRecords[index];
+        assert record >= 0 : "Records of deleted tasks are not read after a remap";
+        return record;
+    }
+
+    private int storedId(int record) {
+        int id = buffer.getInt(HEADER_SIZE + record * RECORD_SIZE + ID);
+        return id > 0 ? id : record + 1;
+    }
+
+    /**
+     * Finds the record with the given ID in the mapped file by binary search, or returns -1.
+     */
+    private int findRecord(int id) {
+        int low = 0;
+        int high = mappedCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = storedId(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Releases a mapping now rather than when it is garbage collected. There is
+     * no public API for it, so this goes through {@code sun.misc.Unsafe}; where
+     * that is unavailable the mapping is left to the collector.
+     */
+    private static void unmap(ByteBuffer mapped) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(theUnsafe.get(null), mapped);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Unmapped by the garbage collector instead.
+        }
+    }
+
+    /**
+     * Writes the given tasks in binary format.
+     *
+     * @param tasks  tasks to write
+     * @param seq    last journal sequence number contained in the tasks
+     * @param nextId ID the next task added to the list will get
+     * @param out    stream to write to (not closed)
+     * @throws IOException if the stream cannot be written
+     */
+    public static void write(List<Task> tasks, long seq, int nextId, OutputStream out) throws IOException {
+        ByteBuffer records = ByteBuffer.allocate(tasks.size() * RECORD_SIZE);
+        ByteArrayOutputStream heap = new ByteArrayOutputStream();
+        for (Task task : tasks) {
+            int base = records.position();
+            records.put(base + DONE, (byte) (task.getDone() ? 1 : 0));
+            records.putInt(base + ID, task.getId());
+            putString(records, base + DESC_OFFSET, task.getDescription(), heap);
+            if (task instanceof Deadline) {
+                records.put(base + TYPE, (byte) 'D');
+                records.putInt(base + FIRST_OFFSET, ((Deadline) task).getByDay());
+            } else if (task instanceof Event) {
+                records.put(base + TYPE, (byte) 'E');
+                putString(records, base + FIRST_OFFSET, ((Event) task).getFrom(), heap);
+                putString(records, base + SECOND_OFFSET, ((Event) task).getTo(), heap);
+            } else {
+                records.put(base + TYPE, (byte) 'T');
+            }
+            records.position(base + RECORD_SIZE);
+        }
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeShort(0);
+        data.writeInt(tasks.size());
+        data.writeInt(nextId);
+        data.writeLong(seq);
+        data.write(records.array());
+        heap.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * Converts a text data file (with its journal, if any) into a binary task file.
+     *
+     * @param textPath   path to an existing text data file
+     * @param binaryPath path of the binary file to create
+     * @throws TommyException if the text file cannot be read or the binary file cannot be written
+     */
+    public static void convert(String textPath, String binaryPath) throws TommyException {
+        Storage storage = new Storage(textPath, true);
+        List<Task> tasks = storage.load();
+        try (OutputStream out = Files.newOutputStream(Path.of(binaryPath))) {
+            write(tasks, 0, storage.getNextId(), out);
+        } catch (IOException e) {
+            throw new TommyException("Error saving data");
+        }
+    }
+
+    /**
+     * Converts a text data file into a binary task file.
+     * Usage: {@code BinaryTaskFile data/tommy.txt data/tommy.bin}
+     *
+     * @param args the text file path and the binary file path
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: BinaryTaskFile <text file> <binary file>");
+            return;
+        }
+        try {
+            convert(args[0], args[1]);
+        } catch (TommyException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    private String readString(int offsetField, int lengthField) {
+        byte[] bytes = new byte[buffer.getInt(lengthField)];
+        buffer.get(heapStart + buffer.getInt(offsetField), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer records, int offsetField, String value, ByteArrayOutputStream heap) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        records.putInt(offsetField, heap.size());
+        records.putInt(offsetField + 4, bytes.length);
+        heap.write(bytes, 0, bytes.length);
+    }
+}
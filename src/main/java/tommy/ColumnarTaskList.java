@@ -0,0 +1,223 @@
+package tommy;
+
+import tommy.task.Deadline;
+import tommy.task.Event;
+import tommy.task.Task;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * List of tasks that also keeps the fields scans look at in parallel arrays, one
+ * entry per position: the type tag, the due date of deadlines as an epoch day,
+ * and the done flag, in a {@link BitSet}. Filtering by status or type and
+ * counting deadlines then run as plain loops over primitive arrays and bit
+ * words instead of calls on scattered task objects, which the JIT can unroll
+ * and vectorize.
+ *
+ * <p>The task objects are kept too, so that {@link #get} returns the same
+ * instance every time. The done column is a copy of each task's flag, so a
+ * task's flag must only change through {@link #setDone}, as {@link TaskList} does.
+ */
+class ColumnarTaskList extends AbstractList<Task> implements RandomAccess {
+    /** Type tag of todos, as in the data file. */
+    static final byte TODO = 'T';
+    /** Type tag of deadlines, as in the data file. */
+    static final byte DEADLINE = 'D';
+    /** Type tag of events, as in the data file. */
+    static final byte EVENT = 'E';
+
+    /** Due day stored for tasks that are not deadlines, so that no date is before it. */
+    private static final int NO_DAY = Integer.MAX_VALUE;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Task[] tasks;
+    private byte[] types;
+    private int[] dueDays;
+    private final BitSet done = new BitSet();
+    private int size;
+
+    /**
+     * Creates an empty list.
+     */
+    ColumnarTaskList() {
+        tasks = new Task[INITIAL_CAPACITY];
+        types = new byte[INITIAL_CAPACITY];
+        dueDays = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Creates a list holding the given tasks, in order.
+     *
+     * @param initial tasks to copy into the columns
+     */
+    ColumnarTaskList(Collection<Task> initial) {
+        int capacity = Math.max(INITIAL_CAPACITY, initial.size());
+        tasks = new Task[capacity];
+        types = new byte[capacity];
+        dueDays = new int[capacity];
+        for (Task task : initial) {
+            store(size++, task);
+        }
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        return tasks[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Objects.checkIndex(index, size);
+        Task previous = tasks[index];
+        store(index, task);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        Objects.checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        if (index < size) {
+            System.arraycopy(tasks, index, tasks, index + 1, size - index);
+            System.arraycopy(types, index, types, index + 1, size - index);
+            System.arraycopy(dueDays, index, dueDays, index + 1, size - index);
+            for (int i = size; i > index; i--) {
+                done.set(i, done.get(i - 1));
+            }
+        }
+        size++;
+        store(index, task);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    @Override
+    protected void removeRange(int from, int to) {
+        int moved = size - to;
+        System.arraycopy(tasks, to, tasks, from, moved);
+        System.arraycopy(types, to, types, from, moved);
+        System.arraycopy(dueDays, to, dueDays, from, moved);
+        for (int i = 0; i < moved; i++) {
+            done.set(from + i, done.get(to + i));
+        }
+        int newSize = size - (to - from);
+        Arrays.fill(tasks, newSize, size, null);
+        done.clear(newSize, size);
+        size = newSize;
+        modCount++;
+    }
+
+    /**
+     * Marks the task at the given position as done or not done, in the task and in the done column.
+     *
+     * @param index  0-based position of the task
+     * @param isDone the new state
+     */
+    void setDone(int index, boolean isDone) {
+        Task task = get(index);
+        if (isDone) {
+            task.markDone();
+        } else {
+            task.unmarkDone();
+        }
+        done.set(index, isDone);
+    }
+
+    /**
+     * Returns the positions of the tasks that are done, or of the ones that are not.
+     *
+     * @param isDone the state to look for
+     * @return a new set of 0-based positions
+     */
+    BitSet positionsWithStatus(boolean isDone) {
+        BitSet positions = (BitSet) done.clone();
+        if (!isDone) {
+            positions.flip(0, size);
+        }
+        return positions;
+    }
+
+    /**
+     * Returns the positions of the tasks with the given type tag.
+     *
+     * @param type {@link #TODO}, {@link #DEADLINE} or {@link #EVENT}
+     * @return a new set of 0-based positions
+     */
+    BitSet positionsOfType(byte type) {
+        long[] words = new long[wordCount()];
+        for (int i = 0; i < size; i++) {
+            words[i >>> 6] |= (types[i] == type ? 1L : 0L) << i;
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Counts the deadlines that are not done and are due strictly before the given day.
+     *
+     * @param day epoch day, as returned by {@link java.time.LocalDate#toEpochDay()}
+     * @return the number of such deadlines
+     */
+    int countUndoneDeadlinesBefore(long day) {
+        if (day > NO_DAY) {
+            day = NO_DAY;
+        }
+        long[] words = new long[wordCount()];
+        for (int i = 0; i < size; i++) {
+            words[i >>> 6] |= (dueDays[i] < day ? 1L : 0L) << i;
+        }
+        BitSet due = BitSet.valueOf(words);
+        due.andNot(done);
+        return due.cardinality();
+    }
+
+    /**
+     * Returns the type tag of a task: {@link #DEADLINE}, {@link #EVENT} or {@link #TODO}.
+     *
+     * @param task the task
+     * @return its type tag
+     */
+    static byte typeOf(Task task) {
+        if (task instanceof Deadline) {
+            return DEADLINE;
+        }
+        return task instanceof Event ? EVENT : TODO;
+    }
+
+    private void store(int index, Task task) {
+        assert task != null : "Stored task should not be null";
+        tasks[index] = task;
+        types[index] = typeOf(task);
+        dueDays[index] = task instanceof Deadline ? ((Deadline) task).getByDay() : NO_DAY;
+        done.set(index, task.getDone());
+    }
+
+    private int wordCount() {
+        return (size + 63) >>> 6;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > tasks.length) {
+            int newCapacity = Math.max(capacity, tasks.length + (tasks.length >> 1));
+            tasks = Arrays.copyOf(tasks, newCapacity);
+            types = Arrays.copyOf(types, newCapacity);
+            dueDays = Arrays.copyOf(dueDays, newCapacity);
+        }
+    }
+}
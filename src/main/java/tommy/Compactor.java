@@ -0,0 +1,106 @@
+package tommy;
+
+import tommy.metrics.Metrics;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Folds the journal into the snapshot file on a background thread.
+ * The active journal is sealed, the snapshot is rebuilt from disk
+ * (old snapshot plus sealed journal) and atomically replaced, and the
+ * sealed journal is deleted. The in-memory task list is never touched,
+ * so compaction does not need to coordinate with the command thread.
+ * The background thread exits after a while without work, so idle lists
+ * do not keep a thread each.
+ */
+class Compactor {
+    private static final long IDLE_SECONDS = 30;
+
+    private final Storage storage;
+    private final Journal journal;
+    private final ExecutorService executor;
+    private final AtomicBoolean isScheduled = new AtomicBoolean(false);
+
+    /**
+     * Creates a Compactor for the given storage and its journal.
+     *
+     * @param storage the storage whose snapshot file is rewritten
+     * @param journal the journal folded into the snapshot
+     */
+    Compactor(Storage storage, Journal journal) {
+        this.storage = storage;
+        this.journal = journal;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, IDLE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "tommy-compactor");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    /**
+     * Requests a compaction on the background thread.
+     * Does nothing if one is already waiting to run.
+     */
+    void schedule() {
+        if (isScheduled.compareAndSet(false, true)) {
+            executor.execute(this::runScheduled);
+        }
+    }
+
+    /**
+     * Blocks until every previously scheduled compaction has finished.
+     */
+    void awaitIdle() {
+        Future<?> marker = executor.submit(() -> { });
+        try {
+            marker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Compacts the journal into the snapshot on the calling thread.
+     *
+     * @throws IOException if the journal or snapshot cannot be read or written
+     * @throws TommyException if the snapshot or journal is corrupted
+     */
+    void compact() throws IOException, TommyException {
+        synchronized (storage.getSnapshotLock()) {
+            if (!journal.seal()) {
+                return;
+            }
+            Storage.Snapshot snapshot = storage.readSnapshot();
+            try {
+                long seq = journal.replaySealed(snapshot);
+                storage.writeSnapshot(snapshot.tasks, seq, snapshot.nextId);
+            } finally {
+                storage.release(snapshot);
+            }
+            journal.deleteSealed();
+        }
+    }
+
+    private void runScheduled() {
+        isScheduled.set(false);
+        try {
+            compact();
+        } catch (IOException | TommyException e) {
+            // The journal is left in place, so nothing is lost; the next compaction retries.
+            System.err.println("Compaction failed: " + e.getMessage());
+            Metrics.get().recordError();
+        }
+    }
+}
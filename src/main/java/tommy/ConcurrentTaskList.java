@@ -0,0 +1,304 @@
+package tommy;
+
+import tommy.task.Deadline;
+import tommy.task.Event;
+import tommy.task.Task;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe {@link TaskList} for front ends that touch the list from more
+ * than one thread, such as the server or background saves.
+ *
+ * <p>Writes ({@link #add}, {@link #remove}, {@link #markDone}, {@link #unmarkDone}
+ * and their by-ID and bulk forms) are serialized by a write lock. {@link #getTasks()} returns an immutable snapshot
+ * of the list that is copied at most once per change and then shared by every
+ * reader, so iterating it (for {@code list} or a save) holds no lock at all.
+ * Index queries such as {@link #findTasks(String)} and scans such as
+ * {@link #findByStatus(boolean)} run under a shared read lock, so they run in
+ * parallel with each other and only wait for writers. The first
+ * query of each kind builds its index, and takes the write lock to do so.
+ * The same goes for the first lookup by ID, for the first read by position
+ * after a removal, and for reads while the slots need compacting after restores.
+ *
+ * <p>Snapshots fix membership only: they hold the same, mutable task objects as
+ * the list, so a task marked after a snapshot was taken shows as done in that
+ * snapshot too. A task's status is read without the lock and always shows the
+ * latest change, but two tasks read one after the other may straddle a bulk change.
+ */
+public class ConcurrentTaskList extends TaskList {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile List<Task> snapshot;
+    private volatile boolean isSearchIndexBuilt;
+    private volatile boolean isDeadlineIndexBuilt;
+    private volatile boolean isEventIndexBuilt;
+    private volatile boolean isIdIndexBuilt;
+
+    /**
+     * Creates an empty ConcurrentTaskList.
+     */
+    public ConcurrentTaskList() {
+        super();
+    }
+
+    /**
+     * Creates a ConcurrentTaskList initialized with an existing list of tasks.
+     * The list must not be modified other than through this object afterwards.
+     *
+     * @param tasks initial list of tasks
+     */
+    public ConcurrentTaskList(List<Task> tasks) {
+        super(tasks);
+    }
+
+    /**
+     * Creates a ConcurrentTaskList initialized with existing tasks that all have IDs.
+     * The list must not be modified other than through this object afterwards.
+     *
+     * @param tasks  initial list of tasks
+     * @param nextId ID the next added task gets
+     */
+    public ConcurrentTaskList(List<Task> tasks, int nextId) {
+        super(tasks, nextId);
+    }
+
+    @Override
+    public void add(Task task) {
+        write(() -> {
+            super.add(task);
+            return null;
+        });
+    }
+
+    @Override
+    public Task remove(int index) {
+        return write(() -> super.remove(index));
+    }
+
+    @Override
+    public Task markDone(int index) {
+        return write(() -> super.markDone(index));
+    }
+
+    @Override
+    public Task unmarkDone(int index) {
+        return write(() -> super.unmarkDone(index));
+    }
+
+    @Override
+    public Task removeById(int id) {
+        return write(() -> super.removeById(id));
+    }
+
+    @Override
+    public Task markDoneById(int id) {
+        return write(() -> super.markDoneById(id));
+    }
+
+    @Override
+    public Task unmarkDoneById(int id) {
+        return write(() -> super.unmarkDoneById(id));
+    }
+
+    @Override
+    public void markAllDone(Collection<Task> marked) {
+        write(() -> {
+            super.markAllDone(marked);
+            return null;
+        });
+    }
+
+    @Override
+    public void unmarkAllDone(Collection<Task> unmarked) {
+        write(() -> {
+            super.unmarkAllDone(unmarked);
+            return null;
+        });
+    }
+
+    @Override
+    public void removeAll(Collection<Task> removed) {
+        write(() -> {
+            super.removeAll(removed);
+            return null;
+        });
+    }
+
+    @Override
+    void compactNow() {
+        locked(lock.writeLock(), () -> {
+            super.compactNow();
+            return null;
+        });
+    }
+
+    @Override
+    public Task get(int index) {
+        return readIf(this::canReadByPosition, () -> super.get(index));
+    }
+
+    @Override
+    public Task getById(int id) {
+        if (!isIdIndexBuilt) {
+            Task result = locked(lock.writeLock(), () -> super.getById(id));
+            isIdIndexBuilt = true;
+            return result;
+        }
+        return read(() -> super.getById(id));
+    }
+
+    @Override
+    public int getNextId() {
+        return locked(lock.writeLock(), super::getNextId);
+    }
+
+    @Override
+    public int size() {
+        return read(super::size);
+    }
+
+    @Override
+    public List<Task> findTasks(String keyword) {
+        if (!isSearchIndexBuilt) {
+            List<Task> result = locked(lock.writeLock(), () -> super.findTasks(keyword));
+            isSearchIndexBuilt = true;
+            return result;
+        }
+        return read(() -> super.findTasks(keyword));
+    }
+
+    @Override
+    public List<Task> findTasks(String keyword, int limit) {
+        if (!isSearchIndexBuilt) {
+            List<Task> result = locked(lock.writeLock(), () -> super.findTasks(keyword, limit));
+            isSearchIndexBuilt = true;
+            return result;
+        }
+        return read(() -> super.findTasks(keyword, limit));
+    }
+
+    @Override
+    public List<Deadline> findDeadlinesBefore(LocalDate date) {
+        return queryDeadlines(() -> super.findDeadlinesBefore(date));
+    }
+
+    @Override
+    public List<Deadline> findDeadlinesBetween(LocalDate from, LocalDate to) {
+        return queryDeadlines(() -> super.findDeadlinesBetween(from, to));
+    }
+
+    @Override
+    public List<Deadline> findUpcomingDeadlines(LocalDate today, int limit) {
+        return queryDeadlines(() -> super.findUpcomingDeadlines(today, limit));
+    }
+
+    @Override
+    public List<Task> findByStatus(boolean isDone) {
+        return readCompacted(() -> super.findByStatus(isDone));
+    }
+
+    @Override
+    public List<Task> findByType(char type) {
+        return readCompacted(() -> super.findByType(type));
+    }
+
+    @Override
+    public int countUndoneDeadlinesBefore(LocalDate date) {
+        return readCompacted(() -> super.countUndoneDeadlinesBefore(date));
+    }
+
+    @Override
+    public List<Event> findOverlappingEvents(Event event) {
+        if (!isEventIndexBuilt) {
+            List<Event> result = locked(lock.writeLock(), () -> super.findOverlappingEvents(event));
+            isEventIndexBuilt = true;
+            return result;
+        }
+        return read(() -> super.findOverlappingEvents(event));
+    }
+
+    /**
+     * Returns an immutable snapshot of which tasks the list holds, and in what
+     * order. Repeated calls between two changes return the same snapshot.
+     * The tasks themselves are not copied, so their status is the current one,
+     * not the one at the time of the call.
+     *
+     * @return unmodifiable list of all tasks in the list at the time of the call
+     */
+    @Override
+    public List<Task> getTasks() {
+        List<Task> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        return readCompacted(() -> {
+            // Writers clear the snapshot while holding the write lock, so any
+            // snapshot seen here is still current.
+            List<Task> copy = snapshot;
+            if (copy == null) {
+                copy = List.copyOf(super.getTasks());
+                snapshot = copy;
+            }
+            return copy;
+        });
+    }
+
+    private List<Deadline> queryDeadlines(Supplier<List<Deadline>> query) {
+        if (!isDeadlineIndexBuilt) {
+            List<Deadline> result = locked(lock.writeLock(), query);
+            isDeadlineIndexBuilt = true;
+            return result;
+        }
+        return read(query);
+    }
+
+    private <T> T read(Supplier<T> action) {
+        return locked(lock.readLock(), action);
+    }
+
+    /**
+     * Runs a read that compacts the slots first: under the read lock if they
+     * need no compacting, and under the write lock otherwise.
+     */
+    private <T> T readCompacted(Supplier<T> action) {
+        return readIf(() -> !needsCompaction(), action);
+    }
+
+    /**
+     * Runs a read under the read lock if the list is ready for it, and under the
+     * write lock otherwise, since getting ready changes the list.
+     */
+    private <T> T readIf(BooleanSupplier isReady, Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            if (isReady.getAsBoolean()) {
+                return action.get();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return locked(lock.writeLock(), action);
+    }
+
+    private <T> T write(Supplier<T> action) {
+        return locked(lock.writeLock(), () -> {
+            snapshot = null;
+            return action.get();
+        });
+    }
+
+    private static <T> T locked(Lock held, Supplier<T> action) {
+        held.lock();
+        try {
+            return action.get();
+        } finally {
+            held.unlock();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package tommy;
+
+import tommy.task.Task;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Undo and redo history of one task list.
+ *
+ * <p>A step records what a command changed (the tasks it added, deleted, marked
+ * or unmarked) rather than a copy of the list, so each step costs memory in
+ * proportion to the tasks it touched, however long the list is. Undoing a step
+ * applies its inverse to the list and saves it through the list's storage like
+ * any other change, so undo and redo are journaled and survive a restart. The
+ * history itself lasts while the list is loaded, and keeps at most {@code depth} steps.
+ */
+class History {
+    /** Number of steps kept when no depth is given. */
+    static final int DEFAULT_DEPTH = 100;
+
+    private final int depth;
+    private final Deque<Change> undoSteps = new ArrayDeque<>();
+    private final Deque<Change> redoSteps = new ArrayDeque<>();
+
+    /**
+     * Creates an empty history.
+     *
+     * @param depth maximum number of steps kept, or 0 to keep none
+     */
+    History(int depth) {
+        assert depth >= 0 : "History depth must not be negative";
+        this.depth = depth;
+    }
+
+    /**
+     * Records a change made by a command. Changes that touched no task are
+     * ignored; any other change clears the steps that could be redone.
+     *
+     * @param change the change that was just made and saved
+     */
+    void record(Change change) {
+        if (change.tasks.isEmpty()) {
+            return;
+        }
+        redoSteps.clear();
+        if (depth == 0) {
+            return;
+        }
+        undoSteps.push(change);
+        if (undoSteps.size() > depth) {
+            undoSteps.removeLast();
+        }
+    }
+
+    /**
+     * Reverts the latest change and saves the result. The step moves to the
+     * redo stack before the list is touched, so a failed save does not leave it
+     * to be reverted a second time.
+     *
+     * @param tasks   the list the change was made to
+     * @param storage the storage of that list
+     * @return the change that was undone, or null if there is none
+     * @throws TommyException if the result cannot be saved
+     */
+    Change undo(TaskList tasks, Storage storage) throws TommyException {
+        Change change = undoSteps.poll();
+        if (change == null) {
+            return null;
+        }
+        redoSteps.push(change);
+        change.inverse().apply(tasks, storage);
+        return change;
+    }
+
+    /**
+     * Makes the latest undone change again and saves the result. As with
+     * {@link #undo}, the step moves back to the undo stack first.
+     *
+     * @param tasks   the list the change was made to
+     * @param storage the storage of that list
+     * @return the change that was redone, or null if there is none
+     * @throws TommyException if the result cannot be saved
+     */
+    Change redo(TaskList tasks, Storage storage) throws TommyException {
+        Change change = redoSteps.poll();
+        if (change == null) {
+            return null;
+        }
+        undoSteps.push(change);
+        change.apply(tasks, storage);
+        return change;
+    }
+
+    /**
+     * Kinds of change a command can make to a list.
+     */
+    enum Kind {
+        ADD("adding %s"),
+        DELETE("deleting %s"),
+        MARK("marking %s as done"),
+        UNMARK("marking %s as not done");
+
+        private final String format;
+
+        Kind(String format) {
+            this.format = format;
+        }
+
+        private Kind inverse() {
+            switch (this) {
+                case ADD:
+                    return DELETE;
+                case DELETE:
+                    return ADD;
+                case MARK:
+                    return UNMARK;
+                default:
+                    return MARK;
+            }
+        }
+    }
+
+    /**
+     * One command's change: the kind of change and the tasks it applied to.
+     * Tasks are held by reference, so a deleted task that is restored keeps its
+     * ID and is put back in its place.
+     */
+    static final class Change {
+        private final Kind kind;
+        private final List<Task> tasks;
+
+        /**
+         * Creates a change.
+         *
+         * @param kind  what was done to the tasks
+         * @param tasks the tasks whose state it changed
+         */
+        Change(Kind kind, List<Task> tasks) {
+            this.kind = kind;
+            this.tasks = List.copyOf(tasks);
+        }
+
+        /**
+         * Returns what the change did, e.g. "deleting 3 tasks".
+         *
+         * @return a description starting in lower case
+         */
+        String describe() {
+            String count = tasks.size() + (tasks.size() == 1 ? " task" : " tasks");
+            return String.format(kind.format, count);
+        }
+
+        private Change inverse() {
+            return new Change(kind.inverse(), tasks);
+        }
+
+        private void apply(TaskList list, Storage storage) throws TommyException {
+            switch (kind) {
+                case ADD:
+                    for (Task task : tasks) {
+                        list.add(task);
+                    }
+                    storage.saveAdd(list, tasks);
+                    break;
+                case DELETE:
+                    list.removeAll(tasks);
+                    storage.saveDelete(list, tasks);
+                    break;
+                case MARK:
+                    list.markAllDone(tasks);
+                    storage.saveMark(list, tasks);
+                    break;
+                default:
+                    list.unmarkAllDone(tasks);
+                    storage.saveUnmark(list, tasks);
+                    break;
+            }
+        }
+    }
+}
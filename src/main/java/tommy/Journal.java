@@ -0,0 +1,423 @@
+package tommy;
+
+import tommy.metrics.Metrics;
+import tommy.task.Task;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Append-only log of task list mutations kept beside the snapshot file.
+ * Each line records a single add, mark, unmark or delete, so persisting
+ * one command costs the same no matter how many tasks are in the list.
+ *
+ * <p>Every record carries an increasing sequence number. The snapshot file
+ * remembers the last sequence number it contains, so records that are
+ * already part of the snapshot are skipped on replay. During compaction the
+ * active journal is sealed (renamed aside) and new records go to a fresh file.
+ *
+ * <p>Added tasks are recorded with their ID, and mark, unmark and delete
+ * records name their tasks by ID ("#ID", or "#ID,#ID,..." for a bulk change,
+ * which is then written, and replayed, as a whole). Journals written before
+ * tasks had IDs name a task by 0-based position instead, and still replay.
+ *
+ * <p>The journal file is kept open between records. By default each record is
+ * flushed as soon as it is written; with auto-flush turned off, records are
+ * buffered until {@link #flush()} so that a batch of commands costs one write.
+ */
+class Journal {
+    private static final String SEPARATOR = " | ";
+    private static final String SEALED_SUFFIX = ".sealed";
+    private static final String ADD = "add";
+    private static final String MARK = "mark";
+    private static final String UNMARK = "unmark";
+    private static final String DELETE = "delete";
+    private static final String ID_PREFIX = "#";
+    private static final String ID_SEPARATOR = ",";
+
+    private final File file;
+    private final File sealedFile;
+    private long lastSeq;
+    private int recordCount;
+    private BufferedWriter writer;
+    private boolean isAutoFlush;
+
+    /**
+     * Creates a Journal backed by the specified file that flushes after every record.
+     *
+     * @param filePath path to the journal file
+     */
+    Journal(String filePath) {
+        this(filePath, true);
+    }
+
+    /**
+     * Creates a Journal backed by the specified file.
+     *
+     * @param filePath    path to the journal file
+     * @param isAutoFlush true to flush after every record
+     */
+    Journal(String filePath, boolean isAutoFlush) {
+        this.file = new File(filePath);
+        this.sealedFile = new File(filePath + SEALED_SUFFIX);
+        this.isAutoFlush = isAutoFlush;
+    }
+
+    /**
+     * Encodes the records for tasks that were added to the list, one record per task.
+     * The records are plain strings, so they can be appended later by another thread
+     * without reading the tasks again.
+     *
+     * @param tasks the added tasks (at least one)
+     * @return the records, in order
+     */
+    static List<String> addRecords(Collection<Task> tasks) {
+        assert !tasks.isEmpty() : "A record names at least one task";
+        List<String> records = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            records.add(ADD + SEPARATOR + Parser.toFileLine(task));
+        }
+        return records;
+    }
+
+    /**
+     * Encodes the record for tasks that were marked as done.
+     *
+     * @param tasks the marked tasks (at least one)
+     * @return the record
+     */
+    static List<String> markRecords(Collection<Task> tasks) {
+        return List.of(MARK + SEPARATOR + idsOf(tasks));
+    }
+
+    /**
+     * Encodes the record for tasks that were marked as not done.
+     *
+     * @param tasks the unmarked tasks (at least one)
+     * @return the record
+     */
+    static List<String> unmarkRecords(Collection<Task> tasks) {
+        return List.of(UNMARK + SEPARATOR + idsOf(tasks));
+    }
+
+    /**
+     * Encodes the record for tasks that were deleted.
+     *
+     * @param tasks the deleted tasks (at least one)
+     * @return the record
+     */
+    static List<String> deleteRecords(Collection<Task> tasks) {
+        return List.of(DELETE + SEPARATOR + idsOf(tasks));
+    }
+
+    private static String idsOf(Collection<Task> tasks) {
+        assert !tasks.isEmpty() : "A record names at least one task";
+        StringBuilder ids = new StringBuilder();
+        for (Task task : tasks) {
+            if (ids.length() > 0) {
+                ids.append(ID_SEPARATOR);
+            }
+            ids.append(ID_PREFIX).append(task.getId());
+        }
+        return ids.toString();
+    }
+
+    /**
+     * Applies the sealed and active journals, in order, to the snapshot's tasks,
+     * and moves its next ID past every ID the journals added.
+     * Records with a sequence number up to the snapshot's are skipped.
+     * A partially written last record in the active journal is cut off.
+     *
+     * @param snapshot tasks loaded from the snapshot file
+     * @throws IOException if the journal cannot be read
+     * @throws TommyException if a record is malformed or refers to a missing task
+     */
+    synchronized void replay(Storage.Snapshot snapshot) throws IOException, TommyException {
+        closeWriter();
+        TaskList tasks = new TaskList(snapshot.tasks, snapshot.nextId);
+        lastSeq = snapshot.seq;
+        lastSeq = Math.max(lastSeq, replayFile(sealedFile, tasks, snapshot.seq, false));
+        lastSeq = Math.max(lastSeq, replayFile(file, tasks, snapshot.seq, true));
+        tasks.compactNow();
+        snapshot.nextId = tasks.getNextId();
+    }
+
+    /**
+     * Applies the sealed journal to the snapshot's tasks.
+     * Used by compaction, which never touches the active journal.
+     *
+     * @param snapshot tasks loaded from the snapshot file
+     * @return the last sequence number contained in the snapshot's tasks afterwards
+     * @throws IOException if the journal cannot be read
+     * @throws TommyException if a record is malformed or refers to a missing task
+     */
+    long replaySealed(Storage.Snapshot snapshot) throws IOException, TommyException {
+        TaskList tasks = new TaskList(snapshot.tasks, snapshot.nextId);
+        long seq = Math.max(snapshot.seq, replayFile(sealedFile, tasks, snapshot.seq, false));
+        tasks.compactNow();
+        snapshot.nextId = tasks.getNextId();
+        return seq;
+    }
+
+    /**
+     * Moves the active journal aside so that it can be compacted while new
+     * records go to a fresh file. If a sealed journal is left over from an
+     * interrupted compaction, it is kept and the active journal is untouched.
+     *
+     * @return true if there is a sealed journal to compact
+     * @throws IOException if the active journal cannot be renamed
+     */
+    synchronized boolean seal() throws IOException {
+        if (sealedFile.exists()) {
+            return true;
+        }
+        closeWriter();
+        if (!file.exists()) {
+            return false;
+        }
+        if (!file.renameTo(sealedFile)) {
+            throw new IOException("Unable to seal journal " + file);
+        }
+        recordCount = 0;
+        return true;
+    }
+
+    /**
+     * Deletes the sealed journal once a snapshot containing it has been written.
+     *
+     * @throws IOException if the sealed journal cannot be deleted
+     */
+    void deleteSealed() throws IOException {
+        if (sealedFile.exists() && !sealedFile.delete()) {
+            throw new IOException("Unable to delete journal " + sealedFile);
+        }
+    }
+
+    /**
+     * Returns whether a sealed journal is waiting to be compacted.
+     *
+     * @return true if an earlier compaction did not finish
+     */
+    boolean hasSealed() {
+        return sealedFile.exists();
+    }
+
+    /**
+     * Discards all recorded operations.
+     * Called once the snapshot file reflects every operation in the journal.
+     *
+     * @throws IOException if a journal file cannot be deleted
+     */
+    synchronized void clear() throws IOException {
+        closeWriter();
+        deleteSealed();
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Unable to clear journal " + file);
+        }
+        recordCount = 0;
+    }
+
+    /**
+     * Returns the sequence number of the most recent record.
+     *
+     * @return last assigned sequence number
+     */
+    synchronized long getLastSeq() {
+        return lastSeq;
+    }
+
+    /**
+     * Returns the number of records in the active journal.
+     *
+     * @return number of records written since the journal was last sealed or cleared
+     */
+    synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Sets whether every record is flushed as soon as it is appended.
+     * Turning auto-flush back on flushes any buffered records.
+     *
+     * @param isAutoFlush true to flush after every record
+     * @throws IOException if buffered records cannot be written
+     */
+    synchronized void setAutoFlush(boolean isAutoFlush) throws IOException {
+        this.isAutoFlush = isAutoFlush;
+        if (isAutoFlush) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes any buffered records to the journal file.
+     *
+     * @throws IOException if the records cannot be written
+     */
+    synchronized void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+            Metrics.get().recordJournalFlush();
+        }
+    }
+
+    /**
+     * Flushes buffered records and closes the journal file.
+     * The file is reopened by the next append.
+     *
+     * @throws IOException if the records cannot be written
+     */
+    synchronized void close() throws IOException {
+        closeWriter();
+    }
+
+    /**
+     * Appends records encoded by {@link #addRecords}, {@link #markRecords},
+     * {@link #unmarkRecords} or {@link #deleteRecords}, giving each the next sequence number.
+     *
+     * @param records the records to append
+     * @throws IOException if the records cannot be written
+     */
+    synchronized void append(List<String> records) throws IOException {
+        if (writer == null) {
+            writer = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8, true));
+        }
+        for (String record : records) {
+            String seq = Long.toString(lastSeq + 1);
+            writer.write(seq);
+            writer.write(SEPARATOR);
+            writer.write(record);
+            writer.newLine();
+            Metrics.get().recordJournalRecord(seq.length() + SEPARATOR.length() + utf8Length(record)
+                    + System.lineSeparator().length());
+            lastSeq++;
+            recordCount++;
+        }
+        if (isAutoFlush) {
+            writer.flush();
+            Metrics.get().recordJournalFlush();
+        }
+    }
+
+    /**
+     * Returns the number of bytes the text takes in UTF-8, without encoding it.
+     */
+    private static int utf8Length(String text) {
+        int length = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x800 && !Character.isSurrogate(c)) {
+                length += 2;
+            } else if (c >= 0x80) {
+                // Two-byte characters, and each half of a four-byte surrogate pair.
+                length += 1;
+            }
+        }
+        return length;
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            BufferedWriter closing = writer;
+            writer = null;
+            closing.close();
+        }
+    }
+
+    /**
+     * Applies every complete record in the file that is newer than the snapshot.
+     *
+     * @return the highest sequence number seen in the file (0 if none)
+     */
+    private long replayFile(File journalFile, TaskList tasks, long snapshotSeq, boolean isActive)
+            throws IOException, TommyException {
+        if (!journalFile.exists()) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(journalFile.toPath());
+        long maxSeq = 0;
+        int count = 0;
+        int start = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            int end = (i > start && bytes[i - 1] == '\r') ? i - 1 : i;
+            String line = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+            long seq = apply(line, tasks, snapshotSeq);
+            maxSeq = Math.max(maxSeq, seq);
+            count++;
+            start = i + 1;
+        }
+        if (isActive) {
+            recordCount = count;
+            if (start < bytes.length) {
+                // The last record was torn by a crash; drop it so new records start on a clean line.
+                try (RandomAccessFile raf = new RandomAccessFile(journalFile, "rw")) {
+                    raf.setLength(start);
+                }
+            }
+        }
+        return maxSeq;
+    }
+
+    private static long apply(String record, TaskList tasks, long snapshotSeq) throws TommyException {
+        String[] parts = record.split(" \\| ", 3);
+        if (parts.length < 3) {
+            throw new TommyException("Corrupted journal file");
+        }
+        long seq = parseNumber(parts[0]);
+        if (seq <= snapshotSeq) {
+            return seq;
+        }
+        if (parts[1].equals(ADD)) {
+            tasks.add(Parser.parseTaskFromFile(parts[2]));
+            return seq;
+        }
+        List<Task> targets = new ArrayList<>();
+        if (parts[2].startsWith(ID_PREFIX)) {
+            for (String id : parts[2].split(ID_SEPARATOR)) {
+                if (!id.startsWith(ID_PREFIX)) {
+                    throw new TommyException("Corrupted journal file");
+                }
+                targets.add(tasks.getById((int) parseNumber(id.substring(ID_PREFIX.length()))));
+            }
+        } else {
+            int index = (int) parseNumber(parts[2]);
+            targets.add(index >= 0 && index < tasks.size() ? tasks.get(index) : null);
+        }
+        if (targets.contains(null)) {
+            throw new TommyException("Corrupted journal file");
+        }
+        switch (parts[1]) {
+            case MARK:
+                tasks.markAllDone(targets);
+                break;
+            case UNMARK:
+                tasks.unmarkAllDone(targets);
+                break;
+            case DELETE:
+                tasks.removeAll(targets);
+                break;
+            default:
+                throw new TommyException("Corrupted journal file");
+        }
+        return seq;
+    }
+
+    private static long parseNumber(String field) throws TommyException {
+        try {
+            return Long.parseLong(field);
+        } catch (NumberFormatException e) {
+            throw new TommyException("Corrupted journal file");
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package tommy;
+
+import tommy.metrics.Metrics;
+import tommy.task.Task;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Size-bounded cache of named task lists, each backed by its own data file
+ * ({@code NAME.txt}, or {@code NAME.bin} for binary storage) in one directory.
+ *
+ * <p>Lists are kept in least-recently-used order. Opening a cached list is a
+ * map lookup; opening any other list loads it from disk and, once the cache is
+ * full, evicts the least recently used list after flushing its pending changes.
+ * Memory therefore stays bounded by the cache capacity, not by how many lists
+ * exist on disk.
+ *
+ * <p>Started with {@code -Dtommy.columnar=true}, lists loaded from text files are
+ * held in a {@link ColumnarTaskList}, so that filters such as "delete done" scan
+ * columns instead of task objects. Binary files stay memory-mapped either way.
+ */
+class ListCache {
+    /** Number of lists kept loaded when no capacity is given. */
+    static final int DEFAULT_CAPACITY = 16;
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final boolean IS_COLUMNAR = Boolean.getBoolean("tommy.columnar");
+
+    private final Path directory;
+    private final String extension;
+    private final long maxLagMillis;
+    private final int historyDepth;
+    private final Map<String, OpenList> lists;
+
+    /**
+     * Creates a cache of lists stored in the given directory.
+     *
+     * @param directory directory holding the data files
+     * @param extension extension of the data files, including the dot
+     * @param capacity  maximum number of lists kept loaded (at least 1)
+     */
+    ListCache(Path directory, String extension, int capacity) {
+        this(directory, extension, capacity, 0);
+    }
+
+    /**
+     * Creates a cache of lists stored in the given directory, whose storage
+     * writes changes in the background.
+     *
+     * @param directory    directory holding the data files
+     * @param extension    extension of the data files, including the dot
+     * @param capacity     maximum number of lists kept loaded (at least 1)
+     * @param maxLagMillis longest time a change may wait before it is durable, or 0 to write synchronously
+     */
+    ListCache(Path directory, String extension, int capacity, long maxLagMillis) {
+        this(directory, extension, capacity, maxLagMillis, History.DEFAULT_DEPTH);
+    }
+
+    /**
+     * Creates a cache of lists stored in the given directory, whose storage
+     * writes changes in the background, keeping an undo history for each loaded list.
+     *
+     * @param directory    directory holding the data files
+     * @param extension    extension of the data files, including the dot
+     * @param capacity     maximum number of lists kept loaded (at least 1)
+     * @param maxLagMillis longest time a change may wait before it is durable, or 0 to write synchronously
+     * @param historyDepth number of changes that can be undone in each list, or 0 to disable undo
+     */
+    ListCache(Path directory, String extension, int capacity, long maxLagMillis, int historyDepth) {
+        assert capacity > 0 : "Cache capacity must be positive";
+        this.directory = directory;
+        this.extension = extension;
+        this.maxLagMillis = maxLagMillis;
+        this.historyDepth = historyDepth;
+        this.lists = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, OpenList> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                close(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the named list, loading it from disk if it is not cached.
+     * A list that does not exist yet starts out empty.
+     *
+     * @param name name of the list
+     * @return the open list
+     * @throws TommyException if the data file cannot be loaded
+     */
+    OpenList open(String name) throws TommyException {
+        OpenList list = lists.get(name);
+        if (list != null) {
+            return list;
+        }
+        Storage storage = createStorage(name);
+        List<Task> tasks = storage.load();
+        if (IS_COLUMNAR && !(tasks instanceof MappedTaskList)) {
+            tasks = new ColumnarTaskList(tasks);
+        }
+        list = new OpenList(name, storage, new ConcurrentTaskList(tasks, storage.getNextId()),
+                new History(historyDepth));
+        lists.put(name, list);
+        return list;
+    }
+
+    /**
+     * Caches an empty list under the given name, backed by its usual data file.
+     * Used to start fresh when the data file could not be loaded.
+     *
+     * @param name name of the list
+     * @return the open list
+     */
+    OpenList openEmpty(String name) {
+        List<Task> tasks = IS_COLUMNAR ? new ColumnarTaskList() : new ArrayList<>();
+        OpenList list = new OpenList(name, createStorage(name), new ConcurrentTaskList(tasks, 1),
+                new History(historyDepth));
+        OpenList previous = lists.put(name, list);
+        if (previous != null) {
+            close(previous);
+        }
+        return list;
+    }
+
+    /**
+     * Returns whether the named list is currently loaded.
+     *
+     * @param name name of the list
+     * @return true if the list is in the cache
+     */
+    boolean isLoaded(String name) {
+        return lists.containsKey(name);
+    }
+
+    /**
+     * Returns the number of lists currently loaded.
+     *
+     * @return number of cached lists
+     */
+    int size() {
+        return lists.size();
+    }
+
+    /**
+     * Flushes every loaded list. The lists stay loaded.
+     */
+    void closeAll() {
+        for (OpenList list : new ArrayList<>(lists.values())) {
+            close(list);
+        }
+    }
+
+    /**
+     * Returns the name of the list stored in the given data file.
+     *
+     * @param filePath path to a data file
+     * @return the file name without its extension
+     */
+    static String nameOf(Path filePath) {
+        String fileName = filePath.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    /**
+     * Returns the extension of the given data file, including the dot.
+     *
+     * @param filePath path to a data file
+     * @return the extension, or an empty string if there is none
+     */
+    static String extensionOf(Path filePath) {
+        String fileName = filePath.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(dot) : "";
+    }
+
+    /**
+     * Returns whether the given name can be used for a new list, that is,
+     * whether it is a plain file name made of letters, digits, '-' and '_'.
+     *
+     * @param name proposed list name
+     * @return true if the name is valid
+     */
+    static boolean isValidName(String name) {
+        return NAME.matcher(name).matches();
+    }
+
+    private Storage createStorage(String name) {
+        return new Storage(directory.resolve(name + extension).toString(), true,
+                Storage.DEFAULT_COMPACTION_THRESHOLD, maxLagMillis);
+    }
+
+    private static void close(OpenList list) {
+        try {
+            list.storage.close();
+        } catch (TommyException e) {
+            System.err.println("Could not save list " + list.name + ": " + e.getMessage());
+            Metrics.get().recordError();
+        }
+    }
+
+    /**
+     * A loaded list together with the storage that persists it and its undo history.
+     */
+    static final class OpenList {
+        final String name;
+        final Storage storage;
+        final TaskList tasks;
+        final History history;
+
+        OpenList(String name, Storage storage, TaskList tasks, History history) {
+            this.name = name;
+            this.storage = storage;
+            this.tasks = tasks;
+            this.history = history;
+        }
+    }
+}
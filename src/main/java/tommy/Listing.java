@@ -0,0 +1,105 @@
+package tommy;
+
+import tommy.task.Task;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Numbered output of a list or search, rendered one page at a time or
+ * streamed line by line. Each task is shown with its ID after it. Either way,
+ * only the tasks being shown are formatted, so the memory a command needs
+ * depends on the page size rather than the list size.
+ */
+class Listing {
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private final String header;
+    private final List<? extends Task> tasks;
+    private final String emptyMessage;
+    private final String command;
+
+    /**
+     * Creates a listing.
+     *
+     * @param header       first line of the output
+     * @param tasks        tasks to number and show (not copied)
+     * @param emptyMessage output when there are no tasks
+     * @param command      command word that continues the listing (e.g. "list")
+     */
+    Listing(String header, List<? extends Task> tasks, String emptyMessage, String command) {
+        this.header = header;
+        this.tasks = tasks;
+        this.emptyMessage = emptyMessage;
+        this.command = command;
+    }
+
+    /**
+     * Returns the number of pages of the given size (at least 1).
+     *
+     * @param pageSize tasks per page
+     * @return number of pages
+     */
+    int getPageCount(int pageSize) {
+        return Math.max(1, (tasks.size() + pageSize - 1) / pageSize);
+    }
+
+    /**
+     * Renders one page. If more pages follow, the last line says how to see the next one.
+     *
+     * @param page     1-based page number
+     * @param pageSize tasks per page
+     * @return the page text
+     * @throws TommyException if the page does not exist
+     */
+    String renderPage(int page, int pageSize) throws TommyException {
+        if (tasks.isEmpty()) {
+            return emptyMessage;
+        }
+        int pageCount = getPageCount(pageSize);
+        if (page < 1 || page > pageCount) {
+            throw new TommyException("There is no page " + page + "; there "
+                    + (pageCount == 1 ? "is 1 page." : "are " + pageCount + " pages."));
+        }
+        int from = (page - 1) * pageSize;
+        int to = Math.min(tasks.size(), from + pageSize);
+        StringBuilder sb = new StringBuilder(header).append('\n');
+        try {
+            writeLines(from, to, sb);
+        } catch (IOException e) {
+            throw new AssertionError("StringBuilder does not throw", e);
+        }
+        if (to < tasks.size()) {
+            sb.append("Showing ").append(from + 1).append('-').append(to).append(" of ").append(tasks.size())
+                    .append(". Type \"").append(command).append(" next\" for more.\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the whole listing, one line at a time.
+     *
+     * @param out destination of the output
+     * @throws IOException if writing fails
+     */
+    void writeAll(Appendable out) throws IOException {
+        if (tasks.isEmpty()) {
+            out.append(emptyMessage);
+            return;
+        }
+        out.append(header).append('\n');
+        writeLines(0, tasks.size(), out);
+    }
+
+    private void writeLines(int from, int to, Appendable out) throws IOException {
+        for (int i = from; i < to; i++) {
+            if (i % CANCEL_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+            Task task = tasks.get(i);
+            out.append(String.valueOf(i + 1)).append(". ").append(task.toString())
+                    .append(" (#").append(String.valueOf(task.getId())).append(")\n");
+        }
+    }
+}
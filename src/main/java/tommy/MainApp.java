@@ -16,6 +16,7 @@ import tommy.Tommy;
 public class MainApp extends Application {
 
     private final Tommy tommy = new Tommy("data/tommy.txt");
+    private MainWindow mainWindow;
 
     @Override
     public void start(Stage stage) {
@@ -28,7 +29,8 @@ public class MainApp extends Application {
             Scene scene = new Scene(root);
             stage.setScene(scene);
 
-            fxmlLoader.<MainWindow>getController().setTommy(tommy);
+            mainWindow = fxmlLoader.getController();
+            mainWindow.setTommy(tommy);
 
             stage.setTitle("Tommy");
             stage.show();
@@ -37,6 +39,14 @@ public class MainApp extends Application {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public void stop() {
+        if (mainWindow != null) {
+            mainWindow.close();
+        }
+        tommy.close();
+    }
 }
 
 
@@ -0,0 +1,191 @@
+package tommy;
+
+import tommy.task.Task;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * List of tasks backed by a {@link BinaryTaskFile}.
+ * A task is decoded from the mapped file the first time it is accessed and
+ * kept from then on, so changes to it (such as marking it done) stick.
+ * Tasks added later live only in memory until the next snapshot is written.
+ *
+ * <p>Decoded tasks are cached by record number in pages that are allocated
+ * when a task on them is first decoded, so a list of which only a few tasks
+ * are touched costs little more than the mapping. Added tasks get record
+ * numbers after the file's. Positions map to record numbers one-to-one until
+ * a task is inserted or removed; from then on an array of record numbers is kept.
+ */
+class MappedTaskList extends AbstractList<Task> implements RandomAccess {
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private final BinaryTaskFile file;
+    private Task[][] pages;
+    private int[] records;
+    private int size;
+    private int nextRecord;
+
+    /**
+     * Creates a list over every record in the given file without decoding any of them.
+     *
+     * @param file the mapped binary task file
+     */
+    MappedTaskList(BinaryTaskFile file) {
+        this.file = file;
+        this.size = file.size();
+        this.nextRecord = size;
+        this.pages = new Task[(size >> PAGE_BITS) + 1][];
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        int record = recordAt(index);
+        Task task = cached(record);
+        if (task == null) {
+            task = file.decode(record);
+            cache(record, task);
+        }
+        return task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task old = get(index);
+        cache(recordAt(index), task);
+        return old;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        Objects.checkIndex(index, size + 1);
+        int record = nextRecord++;
+        cache(record, task);
+        if (records == null && index == size) {
+            // Appending keeps position == record number, as added records follow the file's.
+            assert record == size : "Appended record should match its position";
+        } else {
+            ensureRecords(size + 1);
+            System.arraycopy(records, index, records, index + 1, size - index);
+            records[index] = record;
+        }
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task old = get(index);
+        ensureRecords(size);
+        cache(records[index], null);
+        System.arraycopy(records, index + 1, records, index, size - index - 1);
+        size--;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the ID of the task at the given position, without decoding it.
+     *
+     * @param index 0-based position
+     * @return the task's ID
+     */
+    int idAt(int index) {
+        Objects.checkIndex(index, size);
+        int record = recordAt(index);
+        Task task = cached(record);
+        if (task != null) {
+            return task.getId();
+        }
+        return file.idOf(record);
+    }
+
+    /**
+     * Removes the tasks at every position set in {@code positions} in one pass,
+     * without decoding any of them.
+     *
+     * @param positions 0-based positions to remove
+     */
+    void removeSlots(BitSet positions) {
+        ensureRecords(size);
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            if (positions.get(i)) {
+                cache(records[i], null);
+            } else {
+                records[live++] = records[i];
+            }
+        }
+        size = live;
+        modCount++;
+    }
+
+    /**
+     * Rearranges the tasks from position {@code from} on without decoding any of them:
+     * position {@code from + i} gets the task that was at {@code order[i]}.
+     *
+     * @param from  first position to rearrange
+     * @param order old position of the task for each new position
+     */
+    void reorder(int from, int[] order) {
+        ensureRecords(size);
+        int[] moved = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            moved[i] = records[order[i]];
+        }
+        System.arraycopy(moved, 0, records, from, order.length);
+        modCount++;
+    }
+
+    /**
+     * Returns the mapped file the list reads its tasks from.
+     */
+    BinaryTaskFile getFile() {
+        return file;
+    }
+
+    private int recordAt(int index) {
+        return records == null ? index : records[index];
+    }
+
+    private Task cached(int record) {
+        int pageIndex = record >> PAGE_BITS;
+        Task[] page = pageIndex < pages.length ? pages[pageIndex] : null;
+        return page == null ? null : page[record & (PAGE_SIZE - 1)];
+    }
+
+    private void cache(int record, Task task) {
+        int pageIndex = record >> PAGE_BITS;
+        if (pageIndex >= pages.length) {
+            pages = Arrays.copyOf(pages, Math.max(pageIndex + 1, pages.length + (pages.length >> 1)));
+        }
+        if (pages[pageIndex] == null) {
+            if (task == null) {
+                return;
+            }
+            pages[pageIndex] = new Task[PAGE_SIZE];
+        }
+        pages[pageIndex][record & (PAGE_SIZE - 1)] = task;
+    }
+
+    private void ensureRecords(int capacity) {
+        if (records == null) {
+            records = new int[Math.max(capacity, 10)];
+            for (int i = 0; i < size; i++) {
+                records[i] = i;
+            }
+        } else if (capacity > records.length) {
+            records = Arrays.copyOf(records, Math.max(capacity, records.length + (records.length >> 1)));
+        }
+    }
+}
@@ -6,12 +6,14 @@ import tommy.task.Task;
 import tommy.task.Todo;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
 /**
  * Handles parsing of user input commands and saved file lines
  * into appropriate Task objects or command identifiers.
  */
 public class Parser {
+    private static final String FILE_SEPARATOR = " | ";
 
     /**
      * Extracts the command word (first word) from the user input.
@@ -20,12 +22,37 @@ public class Parser {
      * @return the command keyword (e.g. "todo", "deadline", "list")
      */
     public static String getCommandWord(String input) {
-        return input.split(" ")[0];
+        int space = input.indexOf(' ');
+        return space < 0 ? input : input.substring(0, space);
+    }
+
+    /**
+     * Extracts everything after the command word from the user input.
+     *
+     * @param input the full user command string
+     * @return the trimmed arguments (empty if the command has none)
+     */
+    public static String getArguments(String input) {
+        int space = input.indexOf(' ');
+        return space < 0 ? "" : input.substring(space + 1).trim();
+    }
+
+    /**
+     * Returns the line that stores the task in the data file and journal:
+     * its ID, if it has one, followed by {@link Task#toFileString()}.
+     *
+     * @param task the task to store
+     * @return the line, without a line break
+     */
+    public static String toFileLine(Task task) {
+        return task.getId() > 0 ? task.getId() + FILE_SEPARATOR + task.toFileString() : task.toFileString();
     }
 
     /**
      * Parses a single line from the storage file into a Task object.
-     * The expected format is: type | done | description | [extra fields]
+     * The expected format is: [id |] type | done | description | [extra fields]
+     * Lines written before tasks had IDs have no ID field; their tasks are left without an ID.
+     * Fields are found with {@link String#indexOf}, so only the strings the task keeps are created.
      *
      * @param line a line read from the data file
      * @return the corresponding Task object (Todo, Deadline, or Event)
@@ -33,24 +60,93 @@ public class Parser {
      */
     public static Task parseTaskFromFile(String line) throws TommyException {
         assert line != null : "File line should not be null";
-        String[] parts = line.split(" \\| ");
+        int id = 0;
+        if (!line.isEmpty() && Character.isDigit(line.charAt(0))) {
+            int end = line.indexOf(FILE_SEPARATOR);
+            if (end < 0) {
+                throw new TommyException("Corrupted data file");
+            }
+            id = parseId(line.substring(0, end));
+            line = line.substring(end + FILE_SEPARATOR.length());
+        }
+        Task task = parseTaskFields(line);
+        if (id > 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    private static int parseId(String field) throws TommyException {
+        try {
+            int id = Integer.parseInt(field);
+            if (id <= 0) {
+                throw new NumberFormatException();
+            }
+            return id;
+        } catch (NumberFormatException e) {
+            throw new TommyException("Corrupted data file");
+        }
+    }
+
+    private static Task parseTaskFields(String line) throws TommyException {
+        if (line.length() < 2 * FILE_SEPARATOR.length() + 3
+                || !line.startsWith(FILE_SEPARATOR, 1) || !line.startsWith(FILE_SEPARATOR, 5)) {
+            throw new TommyException("Corrupted data file");
+        }
+        int descStart = 2 * FILE_SEPARATOR.length() + 2;
+        int descEnd = nextSeparator(line, descStart);
+        String description = line.substring(descStart, descEnd);
         Task task;
-        switch (parts[0]) {
-            case "T":
-                task = new Todo(parts[2]);
+        switch (line.charAt(0)) {
+            case 'T':
+                task = new Todo(description);
                 break;
-            case "D":
-                task = new Deadline(parts[2], LocalDate.parse(parts[3]));
+            case 'D':
+                task = new Deadline(description, parseDate(fileField(line, descEnd)));
                 break;
-            case "E":
-                task = new Event(parts[2], parts[3], parts[4]);
+            case 'E':
+                String from = fileField(line, descEnd);
+                String to = fileField(line, nextSeparator(line, descEnd + FILE_SEPARATOR.length()));
+                task = new Event(description, from, to);
                 break;
             default:
                 throw new TommyException("Corrupted data file");
         }
-        if (parts[1].equals("1")) {
+        if (line.charAt(4) == '1') {
             task.markDone();
         }
         return task;
     }
+
+    /**
+     * Returns the field that follows the separator at {@code separator}.
+     */
+    private static String fileField(String line, int separator) throws TommyException {
+        if (separator >= line.length()) {
+            throw new TommyException("Corrupted data file");
+        }
+        int start = separator + FILE_SEPARATOR.length();
+        String field = line.substring(start, nextSeparator(line, start));
+        if (field.isEmpty()) {
+            throw new TommyException("Corrupted data file");
+        }
+        return field;
+    }
+
+    private static int nextSeparator(String line, int from) {
+        int separator = line.indexOf(FILE_SEPARATOR, from);
+        return separator < 0 ? line.length() : separator;
+    }
+
+    private static LocalDate parseDate(String text) throws TommyException {
+        try {
+            LocalDate date = LocalDate.parse(text);
+            if (!Deadline.isSupported(date)) {
+                throw new TommyException("Corrupted data file");
+            }
+            return date;
+        } catch (DateTimeParseException e) {
+            throw new TommyException("Corrupted data file");
+        }
+    }
 }
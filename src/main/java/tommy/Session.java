@@ -0,0 +1,27 @@
+package tommy;
+
+/**
+ * What one conversation with Tommy remembers between commands: the list chosen
+ * with "use" and how far "list next" and "find next" have paged. The CLI and the
+ * GUI hold one conversation; the server keeps a session per client, so that one
+ * client's commands never move another client's place.
+ */
+class Session {
+    /** Name of the list the session's commands act on. */
+    String listName;
+    /** Page of the list shown last, or 0 if none has been shown. */
+    int listPage;
+    /** Results of the last search, which "find next" pages through, or null. */
+    Listing lastFind;
+    /** Page of {@link #lastFind} shown last. */
+    int findPage;
+
+    /**
+     * Creates a session that starts on the given list.
+     *
+     * @param listName name of the list to use
+     */
+    Session(String listName) {
+        this.listName = listName;
+    }
+}
@@ -1,15 +1,59 @@
 package tommy;
 
+import tommy.metrics.Metrics;
 import tommy.task.Task;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
 
 /**
- * Manages loading tasks from and saving tasks to a local text file.
+ * Manages loading tasks from and saving tasks to a local data file.
+ * Data files ending in ".bin" use the memory-mapped {@link BinaryTaskFile}
+ * format, whose tasks are decoded lazily; all others use the text format.
+ * In journal mode, individual mutations are appended to a journal file
+ * beside the data file instead of rewriting the whole data file, and the
+ * journal is periodically compacted into the data file in the background.
+ *
+ * <p>Between {@link #beginBatch} and {@link #endBatch}, changes are group-committed:
+ * they are only forced out every N changes (and at the end of the batch) instead
+ * of after every change.
+ *
+ * <p>In write-behind mode, changes are handed to a background writer and the
+ * save methods return without touching the disk. Changes become durable
+ * within a bounded lag, and {@link #commit()} or {@link #close()} wait for them.
  */
 public class Storage {
+    /** Number of journal records after which a background compaction is requested. */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+    /** Longest time a change waits in memory in write-behind mode, unless configured otherwise. */
+    public static final long DEFAULT_MAX_LAG_MILLIS = 200;
+
+    private static final String BINARY_EXTENSION = ".bin";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String SEQ_HEADER = "# ";
+
     private final String filePath;
+    private final boolean isBinary;
+    private final Journal journal;
+    private final Compactor compactor;
+    private final int compactionThreshold;
+    private final Object snapshotLock = new Object();
+    /** Binary files mapped by {@link #readSnapshot()} and still in use; guarded by {@link #snapshotLock}. */
+    private final List<BinaryTaskFile> mappedFiles = new ArrayList<>();
+    private int commitInterval;
+    private int uncommitted;
+    private TaskList pendingTasks;
+    private final WriteBehind writeBehind;
+    private int nextId = 1;
 
     /**
      * Creates a Storage object that uses the specified file path for task persistence.
@@ -17,55 +61,530 @@ public class Storage {
      * @param filePath path to the data file (relative or absolute)
      */
     public Storage(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Creates a Storage object that uses the specified file path for task persistence,
+     * optionally recording mutations in a journal file (filePath + ".journal").
+     *
+     * @param filePath    path to the data file (relative or absolute)
+     * @param isJournaled whether mutations are appended to a journal instead of rewriting the data file
+     */
+    public Storage(String filePath, boolean isJournaled) {
+        this(filePath, isJournaled, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Creates a Storage object with a custom compaction threshold.
+     * The threshold bounds how many journal records have to be replayed after a crash.
+     *
+     * @param filePath            path to the data file (relative or absolute)
+     * @param isJournaled         whether mutations are appended to a journal
+     * @param compactionThreshold number of journal records that triggers a background compaction
+     */
+    public Storage(String filePath, boolean isJournaled, int compactionThreshold) {
+        this(filePath, isJournaled, compactionThreshold, 0);
+    }
+
+    /**
+     * Creates a Storage object that writes journal records behind the caller's back
+     * when {@code maxLagMillis} is positive. The save methods then encode the change
+     * and only queue the encoded records for a background thread; a burst of changes
+     * is written out with one flush at most {@code maxLagMillis} after the first of them.
+     *
+     * <p>Without a journal there is nothing small to queue, since each change saves
+     * the whole list, which the caller keeps changing; such a Storage writes
+     * synchronously whatever {@code maxLagMillis} is.
+     *
+     * @param filePath            path to the data file (relative or absolute)
+     * @param isJournaled         whether mutations are appended to a journal
+     * @param compactionThreshold number of journal records that triggers a background compaction
+     * @param maxLagMillis        longest time a change may wait before it is durable, or 0 to write synchronously
+     */
+    public Storage(String filePath, boolean isJournaled, int compactionThreshold, long maxLagMillis) {
+        assert compactionThreshold > 0 : "Compaction threshold must be positive";
+        assert maxLagMillis >= 0 : "Maximum lag must not be negative";
+        boolean isWriteBehind = isJournaled && maxLagMillis > 0;
         this.filePath = filePath;
+        this.isBinary = filePath.endsWith(BINARY_EXTENSION);
+        this.compactionThreshold = compactionThreshold;
+        this.journal = isJournaled ? new Journal(filePath + JOURNAL_SUFFIX, !isWriteBehind) : null;
+        this.compactor = isJournaled ? new Compactor(this, journal) : null;
+        this.writeBehind = isWriteBehind ? new WriteBehind(this::flushBehind, maxLagMillis) : null;
     }
 
     /**
-     * Loads all tasks from the storage file.
+     * Loads all tasks from the storage file, then replays the journal (if any) on top of them.
      * Creates the file and parent directories if they do not exist.
+     * Every loaded task has an ID; see {@link #getNextId()} for the ID of the next new task.
      *
-     * @return an ArrayList of Task objects loaded from file
+     * @return the list of Task objects loaded from file
      * @throws TommyException if there is an I/O error or file corruption
      */
-    public ArrayList<Task> load() throws TommyException {
-        ArrayList<Task> tasks = new ArrayList<>();
+    public List<Task> load() throws TommyException {
+        long start = System.nanoTime();
         try {
             File file = new File(filePath);
             file.getParentFile().mkdirs();
             if (!file.exists()) {
                 file.createNewFile();
-                return tasks;
             }
-            BufferedReader br = new BufferedReader(new FileReader(file));
-            String line;
-            while ((line = br.readLine()) != null) {
-                Task task = Parser.parseTaskFromFile(line);
-                tasks.add(task);
+            Snapshot snapshot;
+            synchronized (snapshotLock) {
+                snapshot = readSnapshot();
+                if (journal != null) {
+                    journal.replay(snapshot);
+                }
             }
-            br.close();
+            nextId = snapshot.nextId;
+            if (journal != null && (journal.hasSealed() || journal.getRecordCount() >= compactionThreshold)) {
+                compactor.schedule();
+            }
+            Metrics.get().recordLoad(System.nanoTime() - start);
+            return snapshot.tasks;
         } catch (IOException e) {
             throw new TommyException("Error loading data");
         }
-        return tasks;
+    }
+
+    /**
+     * Returns the ID the next new task should get, as of the last {@link #load()}.
+     * It is greater than the ID of every task the list has ever had, even
+     * deleted ones, so IDs are not reused across sessions.
+     *
+     * @return the next task ID
+     */
+    public int getNextId() {
+        return nextId;
     }
 
     /**
      * Saves the current list of tasks to the storage file.
-     * Overwrites the existing file content.
+     * The file is replaced atomically, so a crash never leaves it half-written.
+     * Clears the journal afterwards.
      *
      * @param tasks the TaskList containing tasks to save
      * @throws TommyException if there is an I/O error during writing
      */
     public void save(TaskList tasks) throws TommyException {
+        if (writeBehind != null && !writeBehind.isWriterThread()) {
+            // Queued journal records must not land after the journal is cleared.
+            writeBehind.flush();
+        }
         try {
-            BufferedWriter bw = new BufferedWriter(new FileWriter(filePath));
-            for (Task t : tasks.getTasks()) {
-                bw.write(t.toFileString());
-                bw.newLine();
+            synchronized (snapshotLock) {
+                writeSnapshot(tasks.getTasks(), journal == null ? 0 : journal.getLastSeq(), tasks.getNextId());
+                if (journal != null) {
+                    journal.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new TommyException("Error saving data");
+        }
+    }
+
+    /**
+     * Persists a task that was just added to the end of the list.
+     * Appends one journal record in journal mode; otherwise saves the whole list.
+     *
+     * @param tasks the TaskList the task was added to
+     * @param task  the added task
+     * @throws TommyException if there is an I/O error during writing
+     */
+    public void saveAdd(TaskList tasks, Task task) throws TommyException {
+        appendToJournal(tasks, "add", Journal::addRecords, List.of(task));
+    }
+
+    /**
+     * Persists tasks that were just added to the list, such as deleted tasks
+     * being restored. Appends one journal record per task, written together.
+     *
+     * @param tasks the TaskList the tasks were added to
+     * @param added the added tasks (at least one)
+     * @throws TommyException if there is an I/O error during writing
+     */
+    public void saveAdd(TaskList tasks, Collection<Task> added) throws TommyException {
+        appendToJournal(tasks, "add", Journal::addRecords, added);
+    }
+
+    /**
+     * Persists that a task was marked as done.
+     *
+     * @param tasks the TaskList containing the task
+     * @param task  the marked task
+     * @throws TommyException if there is an I/O error during writing
+     */
+    public void saveMark(TaskList tasks, Task task) throws TommyException {
+        saveMark(tasks, List.of(task));
+    }
+
+    /**
+     * Persists that several tasks were marked as done, as one change:
+     * one journal record in journal mode, and one save of the whole list otherwise.
+     *
+     * @param tasks  the TaskList containing the tasks
+     * @param marked the marked tasks (at least one)
+     * @throws TommyException if there is an I/O error during writing
+     */
+    public void saveMark(TaskList tasks, Collection<Task> marked) throws TommyException {
+        appendToJournal(tasks, "mark", Journal::markRecords, marked);
+    }
+
+    /**
+     * Persists that a task was marked as not done.
+     *
+     * @param tasks the TaskList containing the task
+     * @param task  the unmarked task
+     * @throws TommyException if there is an I/O error during writing
+     */
+    public void saveUnmark(TaskList tasks, Task task) throws TommyException {
+        saveUnmark(tasks, List.of(task));
+    }
+
+    /**
+     * Persists that several tasks were marked as not done, as one change.
+     *
+     * @param tasks    the TaskList containing the tasks
+     * @param unmarked the unmarked tasks (at least one)
+     * @throws TommyException if there is an I/O error during writing
+     */
+    public void saveUnmark(TaskList tasks, Collection<Task> unmarked) throws TommyException {
+        appendToJournal(tasks, "unmark", Journal::unmarkRecords, unmarked);
+    }
+
+    /**
+     * Persists that a task was deleted.
+     *
+     * @param tasks the TaskList the task was removed from
+     * @param task  the removed task
+     * @throws TommyException if there is an I/O error during writing
+     */
+    public void saveDelete(TaskList tasks, Task task) throws TommyException {
+        saveDelete(tasks, List.of(task));
+    }
+
+    /**
+     * Persists that several tasks were deleted, as one change.
+     *
+     * @param tasks   the TaskList the tasks were removed from
+     * @param deleted the removed tasks (at least one)
+     * @throws TommyException if there is an I/O error during writing
+     */
+    public void saveDelete(TaskList tasks, Collection<Task> deleted) throws TommyException {
+        appendToJournal(tasks, "delete", Journal::deleteRecords, deleted);
+    }
+
+    /**
+     * Folds the journal into the data file on the calling thread.
+     * Does nothing when journal mode is off.
+     *
+     * @throws TommyException if there is an I/O error or file corruption
+     */
+    public void compact() throws TommyException {
+        if (compactor == null) {
+            return;
+        }
+        try {
+            compactor.compact();
+        } catch (IOException e) {
+            throw new TommyException("Error saving data");
+        }
+    }
+
+    /**
+     * Blocks until any background compaction has finished.
+     */
+    public void awaitCompaction() {
+        if (compactor != null) {
+            compactor.awaitIdle();
+        }
+    }
+
+    /* ================= WRITE-BEHIND ================= */
+
+    /**
+     * Makes every record written by the background thread durable. Runs on that thread.
+     */
+    private void flushBehind() throws IOException {
+        journal.flush();
+    }
+
+    /* ================= BATCHES ================= */
+
+    /**
+     * Starts group-committing changes: they are persisted every
+     * {@code commitInterval} changes, on {@link #commit()}, and at {@link #endBatch()}.
+     * In journal mode, journal records are buffered in between; otherwise the
+     * whole list is saved once per commit instead of once per change.
+     *
+     * @param commitInterval number of changes per commit
+     * @throws TommyException if there is an I/O error
+     */
+    public void beginBatch(int commitInterval) throws TommyException {
+        assert commitInterval > 0 : "Commit interval must be positive";
+        this.commitInterval = commitInterval;
+        this.uncommitted = 0;
+        if (journal != null) {
+            try {
+                journal.setAutoFlush(false);
+            } catch (IOException e) {
+                throw new TommyException("Error saving data");
             }
-            bw.close();
+        }
+    }
+
+    /**
+     * Persists every change made since the last commit.
+     *
+     * @throws TommyException if there is an I/O error during writing
+     */
+    public void commit() throws TommyException {
+        uncommitted = 0;
+        if (writeBehind != null) {
+            writeBehind.flush();
+            return;
+        }
+        if (journal == null) {
+            if (pendingTasks != null) {
+                TaskList tasks = pendingTasks;
+                pendingTasks = null;
+                save(tasks);
+            }
+            return;
+        }
+        try {
+            journal.flush();
         } catch (IOException e) {
             throw new TommyException("Error saving data");
         }
     }
+
+    /**
+     * Commits outstanding changes and goes back to persisting every change immediately.
+     *
+     * @throws TommyException if there is an I/O error during writing
+     */
+    public void endBatch() throws TommyException {
+        commit();
+        commitInterval = 0;
+        if (journal != null && writeBehind == null) {
+            try {
+                journal.setAutoFlush(true);
+            } catch (IOException e) {
+                throw new TommyException("Error saving data");
+            }
+        }
+    }
+
+    /**
+     * Flushes and closes the journal file, after waiting for any background
+     * compaction, so that another Storage can safely open the same file.
+     * Storage can still be used afterwards; the journal is reopened on the next change.
+     *
+     * @throws TommyException if there is an I/O error during writing
+     */
+    public void close() throws TommyException {
+        commit();
+        awaitCompaction();
+        synchronized (snapshotLock) {
+            for (BinaryTaskFile mapped : mappedFiles) {
+                mapped.close();
+            }
+            mappedFiles.clear();
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                throw new TommyException("Error saving data");
+            }
+        }
+    }
+
+    /* ================= SNAPSHOT FILE ================= */
+
+    /**
+     * Contents of the data file: the tasks, the last journal sequence number they
+     * include, and the ID the next new task gets (0 if the file does not say).
+     */
+    static class Snapshot {
+        final List<Task> tasks;
+        final long seq;
+        int nextId;
+
+        Snapshot(List<Task> tasks, long seq, int nextId) {
+            this.tasks = tasks;
+            this.seq = seq;
+            this.nextId = nextId;
+        }
+    }
+
+    /**
+     * Returns the lock that serializes every read-modify-write of the data file.
+     */
+    Object getSnapshotLock() {
+        return snapshotLock;
+    }
+
+    /**
+     * Reads the data file. A leading "# N M" line records that the file already
+     * includes journal records up to sequence number N, and that the next new
+     * task gets ID M; files without it are at 0.
+     * Text files are UTF-8 and are scanned as bytes by {@link TaskFileScanner}.
+     * Tasks saved before tasks had IDs are numbered after the highest ID in the
+     * file, in file order, so every read of the same file gives the same IDs.
+     * Binary files keep N and M in their header and are only mapped, not decoded.
+     */
+    Snapshot readSnapshot() throws IOException, TommyException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        File file = new File(filePath);
+        if (!file.exists()) {
+            return new Snapshot(tasks, 0, 1);
+        }
+        if (BinaryTaskFile.isBinary(file.toPath())) {
+            BinaryTaskFile binaryFile = BinaryTaskFile.open(file.toPath());
+            mappedFiles.add(binaryFile);
+            return new Snapshot(new MappedTaskList(binaryFile), binaryFile.getSeq(), binaryFile.getNextId());
+        }
+        Snapshot snapshot = TaskFileScanner.read(file.toPath(), tasks);
+        int maxId = 0;
+        for (Task task : tasks) {
+            maxId = Math.max(maxId, task.getId());
+        }
+        snapshot.nextId = Math.max(snapshot.nextId, maxId + 1);
+        for (Task task : tasks) {
+            if (task.getId() == 0) {
+                task.setId(snapshot.nextId++);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Writes the data file to a temporary file, forces it to disk and renames it
+     * over the old data file, so readers only ever see a complete snapshot.
+     */
+    void writeSnapshot(List<Task> tasks, long seq, int nextId) throws IOException {
+        long start = System.nanoTime();
+        File file = new File(filePath);
+        File temp = new File(filePath + TEMP_SUFFIX);
+        if (isBinary) {
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                BinaryTaskFile.write(tasks, seq, nextId, new BufferedOutputStream(out));
+                out.getFD().sync();
+            }
+        } else {
+            writeTextSnapshot(tasks, seq, nextId, temp);
+        }
+        long bytes = temp.length();
+        // Windows refuses to replace a mapped file, so the mappings are closed around the rename.
+        for (BinaryTaskFile mapped : mappedFiles) {
+            mapped.unmapForReplace();
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            remapAll(file.toPath());
+        }
+        Metrics.get().recordSave(System.nanoTime() - start, tasks.size(), bytes);
+    }
+
+    /**
+     * Maps the data file again for every list that reads from it, after it was replaced.
+     */
+    private void remapAll(Path path) throws IOException {
+        IOException failure = null;
+        for (BinaryTaskFile mapped : mappedFiles) {
+            try {
+                mapped.remap(path);
+            } catch (IOException | TommyException e) {
+                failure = new IOException(e.getMessage(), e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Unmaps the binary file a snapshot read by {@link #readSnapshot()} was read
+     * from, once the snapshot is no longer used. Does nothing for text files.
+     */
+    void release(Snapshot snapshot) {
+        if (snapshot.tasks instanceof MappedTaskList) {
+            BinaryTaskFile binaryFile = ((MappedTaskList) snapshot.tasks).getFile();
+            mappedFiles.remove(binaryFile);
+            binaryFile.close();
+        }
+    }
+
+    private static void writeTextSnapshot(List<Task> tasks, long seq, int nextId, File temp) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(temp);
+                BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            bw.write(SEQ_HEADER + seq + " " + nextId);
+            bw.newLine();
+            for (Task t : tasks) {
+                bw.write(Parser.toFileLine(t));
+                bw.newLine();
+            }
+            bw.flush();
+            out.getFD().sync();
+        }
+    }
+
+    /* ================= JOURNAL ================= */
+
+    private void appendToJournal(TaskList tasks, String command, Function<Collection<Task>, List<String>> encoder,
+            Collection<Task> changed) throws TommyException {
+        boolean isInBatch = commitInterval > 0;
+        if (writeBehind != null) {
+            // Encoded here, not on the writer, which must not read tasks the caller goes on changing.
+            List<String> records = encoder.apply(changed);
+            writeBehind.submit(describe(command, changed), () -> {
+                journal.append(records);
+                scheduleCompactionIfDue();
+            });
+        } else if (journal == null) {
+            if (!isInBatch) {
+                save(tasks);
+                return;
+            }
+            pendingTasks = tasks;
+        } else {
+            try {
+                journal.append(encoder.apply(changed));
+            } catch (IOException e) {
+                throw new TommyException("Error saving data");
+            }
+        }
+        if (isInBatch && ++uncommitted >= commitInterval) {
+            commit();
+        }
+        if (writeBehind == null) {
+            scheduleCompactionIfDue();
+        }
+    }
+
+    /**
+     * Names a change for error messages, e.g. "mark #3" or "delete #4, #7".
+     */
+    private static String describe(String command, Collection<Task> changed) {
+        StringBuilder description = new StringBuilder(command);
+        String separator = " ";
+        for (Task task : changed) {
+            description.append(separator).append('#').append(task.getId());
+            separator = ", ";
+        }
+        return description.toString();
+    }
+
+    private void scheduleCompactionIfDue() {
+        if (journal != null && journal.getRecordCount() >= compactionThreshold) {
+            compactor.schedule();
+        }
+    }
 }
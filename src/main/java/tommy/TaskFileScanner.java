@@ -0,0 +1,495 @@
+package tommy;
+
+import tommy.task.Deadline;
+import tommy.task.Event;
+import tommy.task.Task;
+import tommy.task.Todo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Reads the text data file straight from its UTF-8 bytes.
+ *
+ * <p>Lines are found and split into fields in a reusable byte buffer; fields
+ * are only kept as offsets, and the type, done flag and deadline date are read
+ * from those offsets directly. The only strings created are the ones a task
+ * keeps (its description, and an event's start and end). The bytes of
+ * {@code " | "} and of line breaks never occur inside a multi-byte UTF-8
+ * character, so the scan needs no decoding.
+ *
+ * <p>A line may start with the task's ID; lines written before tasks had IDs
+ * do not, and their tasks are left without one. The optional header line
+ * "# SEQ NEXT_ID" gives the last journal sequence number the file contains and
+ * the ID the next new task gets.
+ *
+ * <p>Large files are cut into chunks that end at line breaks. The chunks are
+ * parsed in parallel on a fork-join pool and their tasks joined in file order.
+ * A corrupted line is reported with its line number either way.
+ */
+class TaskFileScanner {
+    /** Smallest chunk worth a task of its own; files under two chunks are read on one thread. */
+    static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    private static final int MAX_CHUNK_SIZE = 16 << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_FIELDS = 5;
+    private static final byte[] SEQ_HEADER = {'#', ' '};
+    private static final byte[] SEPARATOR = {' ', '|', ' '};
+    private static final int MAX_ID_DIGITS = 9;
+
+    private byte[] buffer;
+    // Start and end offsets of the fields of the current line, in pairs.
+    private final int[] fields = new int[MAX_FIELDS * 2];
+    private final List<Task> tasks;
+    private final boolean isAtFileStart;
+    private long seq;
+    private int nextId;
+    private int lineCount;
+
+    private TaskFileScanner(byte[] buffer, List<Task> tasks, boolean isAtFileStart) {
+        this.buffer = buffer;
+        this.tasks = tasks;
+        this.isAtFileStart = isAtFileStart;
+    }
+
+    /**
+     * Reads every task in a text data file, in parallel on the common fork-join
+     * pool if the file is large and more than one core is available.
+     *
+     * @param file  the data file
+     * @param tasks list the tasks are added to, in file order
+     * @return the tasks with the sequence number and next ID from the header line (0 if there is none)
+     * @throws IOException    if the file cannot be read
+     * @throws TommyException if a line is not a valid task; the message gives its line number
+     */
+    static Storage.Snapshot read(Path file, List<Task> tasks) throws IOException, TommyException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int parallelism = pool.getParallelism();
+            if (parallelism < 2 || size < 2L * MIN_CHUNK_SIZE) {
+                return readSequentially(channel, tasks);
+            }
+            long chunkSize = Math.max(MIN_CHUNK_SIZE,
+                    Math.min(MAX_CHUNK_SIZE, size / ((long) parallelism * CHUNKS_PER_THREAD)));
+            return readInChunks(channel, tasks, pool, (int) chunkSize);
+        }
+    }
+
+    /**
+     * Reads every task in a text data file in chunks of about {@code chunkSize}
+     * bytes on the given pool, however small the file is.
+     *
+     * @param file      the data file
+     * @param tasks     list the tasks are added to, in file order
+     * @param pool      pool that parses the chunks
+     * @param chunkSize bytes per chunk, before it is extended to the next line break
+     * @return the tasks with the sequence number and next ID from the header line (0 if there is none)
+     * @throws IOException    if the file cannot be read
+     * @throws TommyException if a line is not a valid task; the message gives its line number
+     */
+    static Storage.Snapshot read(Path file, List<Task> tasks, ForkJoinPool pool, int chunkSize)
+            throws IOException, TommyException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readInChunks(channel, tasks, pool, chunkSize);
+        }
+    }
+
+    private static Storage.Snapshot readSequentially(FileChannel channel, List<Task> tasks)
+            throws IOException, TommyException {
+        TaskFileScanner scanner = new TaskFileScanner(new byte[BUFFER_SIZE], tasks, true);
+        try {
+            scanner.scan(channel);
+        } catch (TommyException e) {
+            throw corruptedAt(scanner.lineCount);
+        }
+        return new Storage.Snapshot(tasks, scanner.seq, scanner.nextId);
+    }
+
+    private static Storage.Snapshot readInChunks(FileChannel channel, List<Task> tasks, ForkJoinPool pool,
+            int chunkSize) throws IOException, TommyException {
+        long[] bounds = findChunkBounds(channel, chunkSize);
+        Chunk[] chunks = new Chunk[bounds.length - 1];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk(bounds[i], bounds[i + 1]);
+        }
+        if (chunks.length == 0) {
+            return new Storage.Snapshot(tasks, 0, 0);
+        }
+        pool.invoke(new ParseChunks(channel, chunks, 0, chunks.length));
+
+        int linesBefore = 0;
+        int taskCount = tasks.size();
+        for (Chunk chunk : chunks) {
+            if (chunk.ioError != null) {
+                throw chunk.ioError;
+            }
+            if (chunk.isCorrupted) {
+                throw corruptedAt(linesBefore + chunk.scanner.lineCount);
+            }
+            linesBefore += chunk.scanner.lineCount;
+            taskCount += chunk.scanner.tasks.size();
+        }
+        if (tasks instanceof ArrayList) {
+            ((ArrayList<Task>) tasks).ensureCapacity(taskCount);
+        }
+        for (Chunk chunk : chunks) {
+            tasks.addAll(chunk.scanner.tasks);
+        }
+        TaskFileScanner first = chunks[0].scanner;
+        return new Storage.Snapshot(tasks, first.seq, first.nextId);
+    }
+
+    private static TommyException corruptedAt(int line) {
+        return new TommyException("Corrupted data file at line " + line);
+    }
+
+    /**
+     * Returns the offsets that split the file into chunks of at least {@code chunkSize}
+     * bytes, each moved forward to just after a line break. The first offset is 0
+     * and the last is the file size.
+     */
+    private static long[] findChunkBounds(FileChannel channel, int chunkSize) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer window = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = chunkSize;
+        while (position < size) {
+            long lineEnd = findLineBreak(channel, position, window);
+            if (lineEnd < 0) {
+                break;
+            }
+            bounds.add(lineEnd + 1);
+            position = lineEnd + 1 + chunkSize;
+        }
+        if (bounds.get(bounds.size() - 1) < size) {
+            bounds.add(size);
+        }
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the offset of the first line break at or after {@code position}, or -1 if there is none.
+     */
+    private static long findLineBreak(FileChannel channel, long position, ByteBuffer window) throws IOException {
+        while (true) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read < 0) {
+                return -1;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * One newline-aligned part of the file, and what parsing it produced.
+     */
+    private static class Chunk {
+        final long start;
+        final long end;
+        TaskFileScanner scanner;
+        boolean isCorrupted;
+        IOException ioError;
+
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        void parse(FileChannel channel) {
+            byte[] bytes = new byte[(int) (end - start)];
+            scanner = new TaskFileScanner(bytes, new ArrayList<>(), start == 0);
+            try {
+                ByteBuffer target = ByteBuffer.wrap(bytes);
+                while (target.hasRemaining()) {
+                    if (channel.read(target, start + target.position()) < 0) {
+                        throw new IOException("Data file changed while loading");
+                    }
+                }
+                scanner.scanLines(0, bytes.length, true);
+            } catch (IOException e) {
+                ioError = e;
+            } catch (TommyException e) {
+                isCorrupted = true;
+            }
+            // Only the parsed tasks are needed from here on.
+            scanner.buffer = null;
+        }
+    }
+
+    /**
+     * Parses a range of chunks, splitting it in half until one chunk is left.
+     */
+    private static class ParseChunks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final Chunk[] chunks;
+        private final int from;
+        private final int to;
+
+        ParseChunks(FileChannel channel, Chunk[] chunks, int from, int to) {
+            this.channel = channel;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                chunks[from].parse(channel);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParseChunks(channel, chunks, from, middle), new ParseChunks(channel, chunks, middle, to));
+        }
+    }
+
+    /**
+     * Reads the channel from its current position through a buffer that is
+     * refilled as lines are consumed, and grown for lines that do not fit.
+     */
+    private void scan(FileChannel channel) throws IOException, TommyException {
+        int filled = 0;
+        boolean isEnd = false;
+        while (!isEnd) {
+            if (filled == buffer.length) {
+                // A line longer than the buffer: make room for the rest of it.
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            int read = channel.read(ByteBuffer.wrap(buffer, filled, buffer.length - filled));
+            int scanFrom = filled;
+            if (read < 0) {
+                isEnd = true;
+            } else {
+                filled += read;
+            }
+            int lineStart = scanLines(scanFrom, filled, isEnd);
+            System.arraycopy(buffer, lineStart, buffer, 0, filled - lineStart);
+            filled -= lineStart;
+        }
+    }
+
+    /**
+     * Parses the complete lines in {@code buffer[0, to)}; bytes before
+     * {@code scanFrom} are known to hold no line break. At the end of the input,
+     * a last line without a line break is parsed too.
+     *
+     * @return the offset where the first unparsed line starts
+     */
+    private int scanLines(int scanFrom, int to, boolean isEnd) throws TommyException {
+        int lineStart = 0;
+        for (int i = scanFrom; i < to; i++) {
+            if (buffer[i] == '\n') {
+                parseLine(lineStart, trimLineEnd(lineStart, i));
+                lineStart = i + 1;
+            }
+        }
+        if (isEnd && lineStart < to) {
+            parseLine(lineStart, trimLineEnd(lineStart, to));
+            lineStart = to;
+        }
+        return lineStart;
+    }
+
+    /**
+     * Parses one line: the "# SEQ NEXT_ID" header if it opens the file, and a task otherwise.
+     */
+    private void parseLine(int start, int end) throws TommyException {
+        lineCount++;
+        if (lineCount == 1 && isAtFileStart && startsWith(start, end, SEQ_HEADER)) {
+            parseHeader(start + SEQ_HEADER.length, end);
+        } else {
+            tasks.add(parseTask(start, end));
+        }
+    }
+
+    /**
+     * Parses the line in {@code buffer[start, end)}, which has no line break.
+     * Fields are separated by " | " and follow the layout of {@link Parser#toFileLine}.
+     */
+    private Task parseTask(int start, int end) throws TommyException {
+        int id = 0;
+        if (start < end && buffer[start] >= '0' && buffer[start] <= '9') {
+            int idEnd = start;
+            while (idEnd < end && buffer[idEnd] != ' ') {
+                idEnd++;
+            }
+            id = idEnd - start <= MAX_ID_DIGITS ? digits(start, idEnd) : -1;
+            if (id <= 0 || !startsWith(idEnd, end, SEPARATOR)) {
+                throw new TommyException("Corrupted data file");
+            }
+            start = idEnd + SEPARATOR.length;
+        }
+        int count = splitFields(start, end);
+        if (count < 3 || fieldLength(0) != 1) {
+            throw new TommyException("Corrupted data file");
+        }
+        Task task;
+        switch (buffer[fields[0]]) {
+            case 'T':
+                task = new Todo(field(2));
+                break;
+            case 'D':
+                if (count < 4) {
+                    throw new TommyException("Corrupted data file");
+                }
+                LocalDate by = parseDate(fields[6], fields[7]);
+                if (!Deadline.isSupported(by)) {
+                    throw new TommyException("Corrupted data file");
+                }
+                task = new Deadline(field(2), by);
+                break;
+            case 'E':
+                if (count < 5) {
+                    throw new TommyException("Corrupted data file");
+                }
+                task = new Event(field(2), field(3), field(4));
+                break;
+            default:
+                throw new TommyException("Corrupted data file");
+        }
+        if (fieldLength(1) == 1 && buffer[fields[2]] == '1') {
+            task.markDone();
+        }
+        if (id > 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    /**
+     * Records the offsets of up to {@link #MAX_FIELDS} fields and returns how many
+     * there are. Like {@link String#split}, trailing empty fields are dropped.
+     */
+    private int splitFields(int start, int end) {
+        int count = 0;
+        int fieldStart = start;
+        for (int i = start; i + 2 < end && count < MAX_FIELDS - 1; i++) {
+            if (buffer[i] == ' ' && buffer[i + 1] == '|' && buffer[i + 2] == ' ') {
+                fields[count * 2] = fieldStart;
+                fields[count * 2 + 1] = i;
+                count++;
+                fieldStart = i + 3;
+                i += 2;
+            }
+        }
+        int fieldEnd = end;
+        if (count == MAX_FIELDS - 1) {
+            // Any further fields are ignored, as they were by the split-based parser.
+            for (int i = fieldStart; i + 2 < end; i++) {
+                if (buffer[i] == ' ' && buffer[i + 1] == '|' && buffer[i + 2] == ' ') {
+                    fieldEnd = i;
+                    break;
+                }
+            }
+        }
+        fields[count * 2] = fieldStart;
+        fields[count * 2 + 1] = fieldEnd;
+        count++;
+        while (count > 0 && fieldLength(count - 1) == 0) {
+            count--;
+        }
+        return count;
+    }
+
+    private int fieldLength(int index) {
+        return fields[index * 2 + 1] - fields[index * 2];
+    }
+
+    private String field(int index) {
+        return new String(buffer, fields[index * 2], fieldLength(index), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a yyyy-MM-dd date from {@code buffer[start, end)}. Anything else is
+     * left to {@link LocalDate#parse}, which accepts the same text the data file always has.
+     */
+    private LocalDate parseDate(int start, int end) throws TommyException {
+        try {
+            if (end - start == 10 && buffer[start + 4] == '-' && buffer[start + 7] == '-') {
+                int year = digits(start, start + 4);
+                int month = digits(start + 5, start + 7);
+                int day = digits(start + 8, start + 10);
+                if (year >= 0 && month >= 0 && day >= 0) {
+                    return LocalDate.of(year, month, day);
+                }
+            }
+            return LocalDate.parse(new String(buffer, start, end - start, StandardCharsets.UTF_8));
+        } catch (DateTimeException e) {
+            throw new TommyException("Corrupted data file");
+        }
+    }
+
+    /**
+     * Returns the value of the decimal digits in {@code buffer[start, end)}, or -1 if any byte is not a digit.
+     */
+    private int digits(int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Reads the sequence number and the optional next ID that follow "# ".
+     */
+    private void parseHeader(int start, int end) throws TommyException {
+        String[] numbers = new String(buffer, start, end - start, StandardCharsets.US_ASCII).trim().split(" ");
+        try {
+            seq = Long.parseLong(numbers[0]);
+            nextId = numbers.length > 1 ? Integer.parseInt(numbers[1]) : 0;
+        } catch (NumberFormatException e) {
+            throw new TommyException("Corrupted data file");
+        }
+    }
+
+    private boolean startsWith(int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer[start + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops the carriage return of a Windows line break.
+     */
+    private int trimLineEnd(int start, int end) {
+        return end > start && buffer[end - 1] == '\r' ? end - 1 : end;
+    }
+}
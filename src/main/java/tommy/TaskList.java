@@ -1,15 +1,58 @@
 package tommy;
 
+import tommy.index.DeadlineIndex;
+import tommy.index.EventIndex;
+import tommy.index.InvertedIndex;
+import tommy.metrics.Metrics;
+import tommy.task.Deadline;
+import tommy.task.Event;
 import tommy.task.Task;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Manages the in-memory collection of tasks.
  * Provides methods to add, remove, retrieve, and search tasks.
+ * Keyword searches go through an {@link InvertedIndex}, date queries through
+ * a {@link DeadlineIndex} and event overlap checks through an {@link EventIndex}.
+ * Each index is built on its first query and then kept up to date by
+ * {@link #add}, {@link #remove}, {@link #markDone} and {@link #unmarkDone}.
+ *
+ * <p>Tasks can also be addressed by their {@link Task#getId() ID}, through a hash
+ * index from ID to slot that is built on the first lookup. Removing a task only
+ * leaves a tombstone in its slot, and the slots are compacted when tombstones make
+ * up half the list, or before the next access to the whole list. Positions only
+ * count live tasks, so while there are tombstones an access by position finds its
+ * slot through a Fenwick tree counting the tombstones, in O(log n).
+ *
+ * <p>Tasks are kept in ID order, which is the order they were added in. A task
+ * added with an ID lower than the last one (a deleted task being restored, as
+ * undo does) is appended first and moved back into place by the same lazy
+ * compaction, so restoring many tasks costs one merge rather than one shift each.
+ *
+ * <p>Scans by status, type or due date ({@link #findByStatus}, {@link #findByType}
+ * and {@link #countUndoneDeadlinesBefore}) walk the tasks one by one, unless the
+ * tasks are held in a {@link ColumnarTaskList}, whose columns they read instead.
  */
 public class TaskList {
-    private final ArrayList<Task> tasks;
+    private final List<Task> tasks;
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+    /** Fenwick tree over {@link #deleted}, built on the first access by position after a removal, or null. */
+    private int[] tombstoneTree;
+    private int unsortedFrom = -1;
+    private Map<Integer, Integer> slotById;
+    private int nextId;
+    private InvertedIndex searchIndex;
+    private DeadlineIndex deadlineIndex;
+    private EventIndex eventIndex;
 
     /**
      * Creates an empty TaskList.
@@ -20,22 +63,56 @@ public class TaskList {
 
     /**
      * Creates a TaskList initialized with an existing list of tasks.
+     * Tasks without an ID are given one the first time a new ID is needed.
      *
      * @param tasks initial list of tasks
      */
-    public TaskList(ArrayList<Task> tasks) {
+    public TaskList(List<Task> tasks) {
         this.tasks = tasks;
     }
 
     /**
-     * Adds a new task to the list.
+     * Creates a TaskList initialized with existing tasks that all have IDs.
+     *
+     * @param tasks  initial list of tasks
+     * @param nextId ID the next added task gets; greater than every ID ever used in the list
+     */
+    public TaskList(List<Task> tasks, int nextId) {
+        assert nextId > 0 : "Task IDs are positive";
+        this.tasks = tasks;
+        this.nextId = nextId;
+    }
+
+    /**
+     * Adds a new task to the end of the list, or a task that was removed
+     * earlier back to its place in ID order.
      *
      * @param task the task to add (must not be null)
      */
     public void add(Task task) {
         assert task != null : "Task being added should not be null";
+        int next = getNextId();
+        if (task.getId() == 0) {
+            task.setId(next);
+        }
+        nextId = Math.max(next, task.getId() + 1);
+        if (unsortedFrom < 0 && !tasks.isEmpty() && idAt(tasks.size() - 1) > task.getId()) {
+            unsortedFrom = tasks.size();
+        }
         tasks.add(task);
-        assert tasks.contains(task) : "Task should exist after adding";
+        assert tasks.get(tasks.size() - 1) == task : "Task should be last after adding";
+        if (slotById != null) {
+            slotById.put(task.getId(), tasks.size() - 1);
+        }
+        if (searchIndex != null) {
+            searchIndex.add(task);
+        }
+        if (deadlineIndex != null) {
+            deadlineIndex.add(task);
+        }
+        if (eventIndex != null) {
+            eventIndex.add(task);
+        }
     }
 
     /**
@@ -45,24 +122,30 @@ public class TaskList {
      * @param keyword search phrase (multiple words separated by space)
      * @return list of matching tasks (empty list if no matches)
      */
-    public ArrayList<Task> findTasks(String keyword) {
+    public List<Task> findTasks(String keyword) {
         assert keyword != null : "Search keyword should not be null";
-        ArrayList<Task> matches = new ArrayList<>();
-        String[] words = keyword.toLowerCase().trim().split("\\s+");
-        for (Task task : tasks) {
-            String description = task.getDescription().toLowerCase();
-            boolean isMatch = true;
-            for (String word : words) {
-                if (!description.contains(word)) {
-                    isMatch = false;
-                    break;
-                }
-            }
-            if (isMatch) {
-                matches.add(task);
-            }
-        }
-        return matches;
+        long start = System.nanoTime();
+        List<Task> result = getSearchIndex().find(keyword);
+        Metrics.get().recordSearch(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Returns at most {@code limit} tasks ranked by relevance to the keyword phrase.
+     * Unlike {@link #findTasks(String)}, a task matches if any word matches, and
+     * slightly misspelled words still match.
+     *
+     * @param keyword search phrase (multiple words separated by space)
+     * @param limit   maximum number of tasks to return
+     * @return matching tasks, most relevant first (empty list if no matches)
+     */
+    public List<Task> findTasks(String keyword, int limit) {
+        assert keyword != null : "Search keyword should not be null";
+        assert limit > 0 : "Result limit should be positive";
+        long start = System.nanoTime();
+        List<Task> result = getSearchIndex().rank(keyword, limit);
+        Metrics.get().recordSearch(System.nanoTime() - start);
+        return result;
     }
 
     /**
@@ -73,9 +156,20 @@ public class TaskList {
      * @throws AssertionError if index is out of bounds
      */
     public Task get(int index) {
-        assert index >= 0 && index < tasks.size()
+        assert index >= 0 && index < size()
                 : "Index out of bounds in TaskList.get()";
-        return tasks.get(index);
+        return tasks.get(slotAt(index));
+    }
+
+    /**
+     * Returns the task with the given ID.
+     *
+     * @param id ID of the task
+     * @return the task, or null if the list has no task with that ID
+     */
+    public Task getById(int id) {
+        int slot = slotOf(id);
+        return slot < 0 ? null : tasks.get(slot);
     }
 
     /**
@@ -85,7 +179,310 @@ public class TaskList {
      * @return the removed task
      */
     public Task remove(int index) {
-        return tasks.remove(index);
+        assert index >= 0 && index < size()
+                : "Index out of bounds in TaskList.remove()";
+        Task removed = removeSlot(slotAt(index));
+        compactIfSparse();
+        return removed;
+    }
+
+    /**
+     * Removes and returns the task with the given ID, in constant time.
+     *
+     * @param id ID of the task to remove
+     * @return the removed task, or null if the list has no task with that ID
+     */
+    public Task removeById(int id) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return null;
+        }
+        Task removed = removeSlot(slot);
+        compactIfSparse();
+        return removed;
+    }
+
+    private Task removeSlot(int slot) {
+        Task removed = tasks.get(slot);
+        deleted.set(slot);
+        deletedCount++;
+        if (tombstoneTree != null && slot + 1 >= tombstoneTree.length) {
+            tombstoneTree = null; // outgrown; rebuilt by the next access by position
+        } else if (tombstoneTree != null) {
+            for (int node = slot + 1; node < tombstoneTree.length; node += node & -node) {
+                tombstoneTree[node]++;
+            }
+        }
+        if (slotById != null) {
+            slotById.remove(removed.getId());
+        }
+        if (searchIndex != null) {
+            searchIndex.remove(removed);
+        }
+        if (deadlineIndex != null) {
+            deadlineIndex.remove(removed);
+        }
+        if (eventIndex != null) {
+            eventIndex.remove(removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Marks the task at the specified index as done.
+     *
+     * @param index 0-based index of the task
+     * @return the marked task
+     */
+    public Task markDone(int index) {
+        return markDone(get(index));
+    }
+
+    /**
+     * Marks the task with the given ID as done.
+     *
+     * @param id ID of the task
+     * @return the marked task, or null if the list has no task with that ID
+     */
+    public Task markDoneById(int id) {
+        Task task = getById(id);
+        return task == null ? null : markDone(task);
+    }
+
+    private Task markDone(Task task) {
+        setDone(task, true);
+        if (deadlineIndex != null) {
+            deadlineIndex.update(task);
+        }
+        return task;
+    }
+
+    /**
+     * Marks the task at the specified index as not done.
+     *
+     * @param index 0-based index of the task
+     * @return the unmarked task
+     */
+    public Task unmarkDone(int index) {
+        return unmarkDone(get(index));
+    }
+
+    /**
+     * Marks the task with the given ID as not done.
+     *
+     * @param id ID of the task
+     * @return the unmarked task, or null if the list has no task with that ID
+     */
+    public Task unmarkDoneById(int id) {
+        Task task = getById(id);
+        return task == null ? null : unmarkDone(task);
+    }
+
+    private Task unmarkDone(Task task) {
+        setDone(task, false);
+        if (deadlineIndex != null) {
+            deadlineIndex.update(task);
+        }
+        return task;
+    }
+
+    private void setDone(Task task, boolean isDone) {
+        if (tasks instanceof ColumnarTaskList) {
+            ((ColumnarTaskList) tasks).setDone(slotOf(task.getId()), isDone);
+        } else if (isDone) {
+            task.markDone();
+        } else {
+            task.unmarkDone();
+        }
+    }
+
+    /* ================= BULK CHANGES ================= */
+
+    /**
+     * Marks every given task as done.
+     *
+     * @param marked tasks in this list
+     */
+    public void markAllDone(Collection<Task> marked) {
+        for (Task task : marked) {
+            markDone(task);
+        }
+    }
+
+    /**
+     * Marks every given task as not done.
+     *
+     * @param unmarked tasks in this list
+     */
+    public void unmarkAllDone(Collection<Task> unmarked) {
+        for (Task task : unmarked) {
+            unmarkDone(task);
+        }
+    }
+
+    /**
+     * Removes every given task. Each removal only leaves a tombstone, and the
+     * tombstones are compacted in one pass later, so removing k tasks costs O(k)
+     * plus at most one compaction rather than k shifts of the list.
+     *
+     * @param removed tasks in this list
+     */
+    public void removeAll(Collection<Task> removed) {
+        for (Task task : removed) {
+            int slot = slotOf(task.getId());
+            if (slot >= 0) {
+                removeSlot(slot);
+            }
+        }
+        compactIfSparse();
+    }
+
+    /**
+     * Returns undone deadlines due strictly before the given date, earliest first.
+     *
+     * @param date exclusive upper bound
+     * @return matching deadlines (empty list if none)
+     */
+    public List<Deadline> findDeadlinesBefore(LocalDate date) {
+        return getDeadlineIndex().dueBefore(date);
+    }
+
+    /**
+     * Returns undone deadlines due between the two dates (both inclusive), earliest first.
+     *
+     * @param from inclusive lower bound
+     * @param to   inclusive upper bound
+     * @return matching deadlines (empty list if none)
+     */
+    public List<Deadline> findDeadlinesBetween(LocalDate from, LocalDate to) {
+        return getDeadlineIndex().dueBetween(from, to);
+    }
+
+    /**
+     * Returns the next {@code limit} undone deadlines due on or after the given date.
+     *
+     * @param today first date to include
+     * @param limit maximum number of deadlines to return
+     * @return matching deadlines, earliest first (empty list if none)
+     */
+    public List<Deadline> findUpcomingDeadlines(LocalDate today, int limit) {
+        return getDeadlineIndex().upcoming(today, limit);
+    }
+
+    /* ================= SCANS ================= */
+
+    /**
+     * Returns the tasks that are done, or the ones that are not, in list order.
+     *
+     * @param isDone true for done tasks, false for the others
+     * @return a new list of the matching tasks
+     */
+    public List<Task> findByStatus(boolean isDone) {
+        List<Task> live = liveTasks();
+        if (live instanceof ColumnarTaskList) {
+            return tasksAt(((ColumnarTaskList) live).positionsWithStatus(isDone));
+        }
+        List<Task> result = new ArrayList<>();
+        for (Task task : live) {
+            if (task.getDone() == isDone) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the tasks of one type, in list order.
+     *
+     * @param type 'T' for todos, 'D' for deadlines or 'E' for events
+     * @return a new list of the matching tasks
+     */
+    public List<Task> findByType(char type) {
+        assert type == 'T' || type == 'D' || type == 'E' : "Unknown task type " + type;
+        List<Task> live = liveTasks();
+        if (live instanceof ColumnarTaskList) {
+            return tasksAt(((ColumnarTaskList) live).positionsOfType((byte) type));
+        }
+        List<Task> result = new ArrayList<>();
+        for (Task task : live) {
+            if (ColumnarTaskList.typeOf(task) == type) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the undone deadlines due strictly before the given date.
+     *
+     * @param date the cutoff date (exclusive)
+     * @return the number of such deadlines
+     */
+    public int countUndoneDeadlinesBefore(LocalDate date) {
+        List<Task> live = liveTasks();
+        long day = date.toEpochDay();
+        if (live instanceof ColumnarTaskList) {
+            return ((ColumnarTaskList) live).countUndoneDeadlinesBefore(day);
+        }
+        int count = 0;
+        for (Task task : live) {
+            if (task instanceof Deadline && !task.getDone() && ((Deadline) task).getByDay() < day) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<Task> tasksAt(BitSet positions) {
+        List<Task> result = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            result.add(tasks.get(i));
+        }
+        return result;
+    }
+
+    private InvertedIndex getSearchIndex() {
+        if (searchIndex == null) {
+            searchIndex = new InvertedIndex(this::liveTaskWithId);
+            getNextId();
+            for (Task task : liveTasks()) {
+                searchIndex.add(task);
+            }
+        }
+        return searchIndex;
+    }
+
+    /**
+     * Returns the other events in the list whose time range overlaps the given event's.
+     * Events whose times could not be parsed never overlap anything.
+     *
+     * @param event the event to check (need not be in the list)
+     * @return overlapping events, ordered by start time (empty list if none)
+     */
+    public List<Event> findOverlappingEvents(Event event) {
+        return getEventIndex().overlapping(event);
+    }
+
+    private EventIndex getEventIndex() {
+        if (eventIndex == null) {
+            eventIndex = new EventIndex();
+            getNextId();
+            for (Task task : liveTasks()) {
+                eventIndex.add(task);
+            }
+        }
+        return eventIndex;
+    }
+
+    private DeadlineIndex getDeadlineIndex() {
+        if (deadlineIndex == null) {
+            deadlineIndex = new DeadlineIndex();
+            getNextId();
+            for (Task task : liveTasks()) {
+                deadlineIndex.add(task);
+            }
+        }
+        return deadlineIndex;
     }
 
     /**
@@ -94,15 +491,288 @@ public class TaskList {
      * @return number of tasks
      */
     public int size() {
-        return tasks.size();
+        return tasks.size() - deletedCount;
     }
 
     /**
-     * Returns the internal list of tasks (direct reference).
+     * Returns the ID the next added task without one will get. IDs are never
+     * reused, so this is also greater than the ID of every task ever in the list.
      *
-     * @return the ArrayList containing all tasks
+     * @return the next task ID
      */
-    public ArrayList<Task> getTasks() {
+    public int getNextId() {
+        if (nextId == 0) {
+            int maxId = 0;
+            for (int slot = 0; slot < tasks.size(); slot++) {
+                maxId = Math.max(maxId, idAt(slot));
+            }
+            nextId = maxId + 1;
+            for (int slot = 0; slot < tasks.size(); slot++) {
+                if (idAt(slot) == 0) {
+                    tasks.get(slot).setId(nextId++);
+                }
+            }
+        }
+        return nextId;
+    }
+
+    /**
+     * Returns the internal list of tasks (direct reference), after compacting it.
+     * Callers must not modify it, or searches will miss the change.
+     *
+     * @return the list containing all tasks
+     */
+    public List<Task> getTasks() {
+        return liveTasks();
+    }
+
+    /**
+     * Returns whether removed tasks still occupy slots, or restored tasks are
+     * not in their place yet, so that the next access to the whole list
+     * compacts the slots.
+     */
+    boolean needsCompaction() {
+        return deletedCount > 0 || unsortedFrom >= 0;
+    }
+
+    /**
+     * Returns whether {@link #get(int)} can find a position without changing
+     * the list: restored tasks are in place, and the tombstones, if any, are counted.
+     */
+    boolean canReadByPosition() {
+        return unsortedFrom < 0 && (deletedCount == 0 || tombstoneTree != null);
+    }
+
+    /**
+     * Drops the slots of removed tasks from the backing list and moves restored
+     * tasks into place now, rather than on the next access that needs it, for
+     * callers that go on to use the backing list directly.
+     */
+    void compactNow() {
+        compact();
+    }
+
+    private List<Task> liveTasks() {
+        compact();
         return tasks;
     }
+
+    /* ================= SLOTS ================= */
+
+    private int slotOf(int id) {
+        if (slotById == null) {
+            getNextId();
+            slotById = new HashMap<>();
+            indexSlots();
+        }
+        Integer slot = slotById.get(id);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Returns the live task with the given ID, or null, without changing the list:
+     * through the ID index if it is built, and otherwise by binary search, since
+     * slots are in ID order up to the restored tasks not yet moved into place.
+     * Unlike {@link #getById}, this is safe to call from inside another query.
+     */
+    private Task liveTaskWithId(int id) {
+        if (slotById != null) {
+            Integer slot = slotById.get(id);
+            return slot == null ? null : tasks.get(slot);
+        }
+        int sortedEnd = unsortedFrom < 0 ? tasks.size() : unsortedFrom;
+        int low = 0;
+        int high = sortedEnd - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = idAt(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else if (!deleted.get(mid)) {
+                return tasks.get(mid);
+            } else {
+                break;
+            }
+        }
+        for (int slot = sortedEnd; slot < tasks.size(); slot++) {
+            if (idAt(slot) == id && !deleted.get(slot)) {
+                return tasks.get(slot);
+            }
+        }
+        return null;
+    }
+
+    private void indexSlots() {
+        slotById.clear();
+        for (int slot = 0; slot < tasks.size(); slot++) {
+            if (!deleted.get(slot)) {
+                slotById.put(idAt(slot), slot);
+            }
+        }
+    }
+
+    /**
+     * Returns the ID of the task in the given slot. Tasks of a mapped file are not decoded for it.
+     */
+    private int idAt(int slot) {
+        if (tasks instanceof MappedTaskList) {
+            return ((MappedTaskList) tasks).idAt(slot);
+        }
+        return tasks.get(slot).getId();
+    }
+
+    /**
+     * Returns the slot holding the task at the given position, which counts live tasks only.
+     */
+    private int slotAt(int index) {
+        if (unsortedFrom >= 0) {
+            compact();
+        }
+        if (deletedCount == 0) {
+            return index;
+        }
+        if (tombstoneTree == null || tombstoneTree.length <= tasks.size()) {
+            buildTombstoneTree();
+        }
+        // Descends the tree for the last slot before which fewer than index + 1 tasks are live.
+        int slot = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(tombstoneTree.length - 1); step > 0; step >>= 1) {
+            int node = slot + step;
+            if (node < tombstoneTree.length && step - tombstoneTree[node] < remaining) {
+                slot = node;
+                remaining -= step - tombstoneTree[node];
+            }
+        }
+        assert !deleted.get(slot) : "Position should fall on a live task";
+        return slot;
+    }
+
+    /**
+     * Builds the Fenwick tree over the tombstones, with room for the list to double.
+     */
+    private void buildTombstoneTree() {
+        tombstoneTree = new int[2 * tasks.size() + 1];
+        for (int slot = deleted.nextSetBit(0); slot >= 0; slot = deleted.nextSetBit(slot + 1)) {
+            tombstoneTree[slot + 1]++;
+        }
+        for (int node = 1; node < tombstoneTree.length; node++) {
+            int parent = node + (node & -node);
+            if (parent < tombstoneTree.length) {
+                tombstoneTree[parent] += tombstoneTree[node];
+            }
+        }
+    }
+
+    private void compactIfSparse() {
+        if (deletedCount * 2 > tasks.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Drops the tombstones left by removals and moves restored tasks into place.
+     */
+    private void compact() {
+        if (!needsCompaction()) {
+            return;
+        }
+        if (deletedCount > 0) {
+            dropTombstones();
+        }
+        if (unsortedFrom >= 0) {
+            restoreOrder();
+        }
+        if (slotById != null) {
+            indexSlots();
+        }
+    }
+
+    /**
+     * Drops the tombstones left by removals, keeping the order of the remaining tasks.
+     */
+    private void dropTombstones() {
+        if (unsortedFrom >= 0) {
+            unsortedFrom -= deleted.get(0, unsortedFrom).cardinality();
+        }
+        if (tasks instanceof MappedTaskList) {
+            ((MappedTaskList) tasks).removeSlots(deleted);
+        } else {
+            int live = 0;
+            for (int slot = 0; slot < tasks.size(); slot++) {
+                if (!deleted.get(slot)) {
+                    if (live != slot) {
+                        tasks.set(live, tasks.get(slot));
+                    }
+                    live++;
+                }
+            }
+            tasks.subList(live, tasks.size()).clear();
+        }
+        deleted.clear();
+        deletedCount = 0;
+        tombstoneTree = null;
+    }
+
+    /**
+     * Sorts the slots appended since {@code unsortedFrom} by ID and merges them
+     * into the sorted slots before them, moving only the slots from the first
+     * place a restored task goes.
+     */
+    private void restoreOrder() {
+        int size = tasks.size();
+        if (unsortedFrom >= size) {
+            unsortedFrom = -1;
+            return;
+        }
+        // ID in the high half and slot in the low half, so sorting orders by ID.
+        long[] tail = new long[size - unsortedFrom];
+        for (int slot = unsortedFrom; slot < size; slot++) {
+            tail[slot - unsortedFrom] = ((long) idAt(slot) << 32) | slot;
+        }
+        Arrays.sort(tail);
+        int from = firstSlotAbove((int) (tail[0] >>> 32), unsortedFrom);
+        int[] order = new int[size - from];
+        int sorted = from;
+        int restored = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (sorted < unsortedFrom
+                    && (restored == tail.length || idAt(sorted) < (int) (tail[restored] >>> 32))) {
+                order[i] = sorted++;
+            } else {
+                order[i] = (int) tail[restored++];
+            }
+        }
+        if (tasks instanceof MappedTaskList) {
+            ((MappedTaskList) tasks).reorder(from, order);
+        } else {
+            Task[] moved = new Task[order.length];
+            for (int i = 0; i < order.length; i++) {
+                moved[i] = tasks.get(order[i]);
+            }
+            for (int i = 0; i < order.length; i++) {
+                tasks.set(from + i, moved[i]);
+            }
+        }
+        unsortedFrom = -1;
+    }
+
+    /**
+     * Returns the first of the sorted slots before {@code end} whose ID is greater than {@code id}.
+     */
+    private int firstSlotAbove(int id, int end) {
+        int low = 0;
+        int high = end;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (idAt(mid) > id) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
 }
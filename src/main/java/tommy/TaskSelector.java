@@ -0,0 +1,138 @@
+package tommy;
+
+import tommy.task.Task;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Picks the tasks that mark, unmark, delete and conflicts apply to.
+ *
+ * <p>The arguments are either a filter ("done", "undone", or "type:T", "type:D"
+ * or "type:E") or a comma-separated list of 1-based positions ("3"), ranges of
+ * positions ("1-500") and task IDs ("#42"). Positions refer to the list as it is
+ * before the command, so "delete 3,7,19" deletes the tasks shown as 3, 7 and 19.
+ * A filter is one scan of the list; positions and IDs only look up the tasks they name.
+ */
+class TaskSelector {
+    private static final String DONE = "done";
+    private static final String UNDONE = "undone";
+    private static final String TYPE = "type:";
+    private static final String ID_PREFIX = "#";
+    private static final String ITEM_SEPARATOR = ",";
+
+    private TaskSelector() {
+    }
+
+    /**
+     * Returns the tasks the arguments select, in the order they are named
+     * (list order for a filter), without duplicates.
+     *
+     * @param tasks     the task list
+     * @param arguments a filter, or positions, ranges and IDs
+     * @return the selected tasks (empty only if a filter matches nothing)
+     * @throws TommyException if a position, range or ID is invalid
+     */
+    static List<Task> select(TaskList tasks, String arguments) throws TommyException {
+        assert arguments != null : "Arguments to select must not be null";
+        Function<TaskList, List<Task>> filter = parseFilter(arguments.toLowerCase());
+        if (filter != null) {
+            return filter.apply(tasks);
+        }
+        Set<Task> selected = new LinkedHashSet<>();
+        for (String item : arguments.split(ITEM_SEPARATOR)) {
+            item = item.trim();
+            int dash = item.indexOf('-');
+            if (item.startsWith(ID_PREFIX) || dash < 0) {
+                selected.add(selectOne(tasks, item));
+                continue;
+            }
+            int from = parsePosition(tasks, item.substring(0, dash).trim());
+            int to = parsePosition(tasks, item.substring(dash + 1).trim());
+            if (from > to) {
+                throw new TommyException("Please give ranges from the lower number to the higher one.");
+            }
+            for (int i = from; i <= to; i++) {
+                selected.add(tasks.get(i));
+            }
+        }
+        return new ArrayList<>(selected);
+    }
+
+    /**
+     * Returns whether the arguments name exactly one task, by position or by ID.
+     *
+     * @param arguments the command arguments
+     * @return true unless the arguments are a filter, a range or a list
+     */
+    static boolean isSingle(String arguments) {
+        return parseFilter(arguments.toLowerCase()) == null
+                && !arguments.contains(ITEM_SEPARATOR) && arguments.indexOf('-') < 0;
+    }
+
+    /**
+     * Returns the task named by "#ID", looked up by ID, or by a 1-based position in the list.
+     *
+     * @param tasks     the task list
+     * @param arguments the position or ID
+     * @return the task
+     * @throws TommyException if the number is invalid or no task has the ID
+     */
+    static Task selectOne(TaskList tasks, String arguments) throws TommyException {
+        if (!arguments.startsWith(ID_PREFIX)) {
+            return tasks.get(parsePosition(tasks, arguments));
+        }
+        int id;
+        try {
+            id = Integer.parseInt(arguments.substring(ID_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new TommyException("Please provide a valid task ID.");
+        }
+        Task task = tasks.getById(id);
+        if (task == null) {
+            throw new TommyException("There is no task #" + id + ".");
+        }
+        return task;
+    }
+
+    /**
+     * Parses a 1-based task number.
+     *
+     * @return the 0-based index of the task
+     * @throws TommyException if the number is missing or out of range
+     */
+    private static int parsePosition(TaskList tasks, String field) throws TommyException {
+        try {
+            int idx = Integer.parseInt(field) - 1;
+            if (idx < 0 || idx >= tasks.size()) {
+                throw new NumberFormatException();
+            }
+            return idx;
+        } catch (NumberFormatException e) {
+            throw new TommyException("Please provide a valid task number.");
+        }
+    }
+
+    /**
+     * Returns the scan of the list that the (lower-case) arguments name, or null if they are not a filter.
+     */
+    private static Function<TaskList, List<Task>> parseFilter(String arguments) {
+        switch (arguments) {
+            case DONE:
+                return tasks -> tasks.findByStatus(true);
+            case UNDONE:
+                return tasks -> tasks.findByStatus(false);
+            case TYPE + "t":
+                return tasks -> tasks.findByType('T');
+            case TYPE + "d":
+                return tasks -> tasks.findByType('D');
+            case TYPE + "e":
+                return tasks -> tasks.findByType('E');
+            default:
+                return null;
+        }
+    }
+}
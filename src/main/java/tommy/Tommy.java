@@ -1,9 +1,23 @@
 package tommy;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+import java.util.regex.Pattern;
 
+import tommy.command.CommandRegistry;
+import tommy.metrics.Metrics;
 import tommy.ui.Ui;
 import tommy.task.Task;
 import tommy.task.Todo;
@@ -15,29 +29,80 @@ import tommy.task.Event;
  * Manages task list, user commands, storage, and responses (both CLI and GUI modes).
  */
 public class Tommy {
+    private static final Pattern BY = Pattern.compile("/by");
+    private static final Pattern FROM_OR_TO = Pattern.compile("/from|/to");
+    private static final Pattern TOP = Pattern.compile("/top");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int DEFAULT_COMMIT_INTERVAL = 1000;
+    private static final int PAGE_SIZE = 50;
+    private static final String NO_MATCHING_TASKS = "No matching tasks found.";
 
     private final Ui ui;
-    private final Storage storage;
-    private final TaskList tasks;
+    private final ListCache lists;
+    private final Session mainSession;
+    private Session session;
+    private Storage storage;
+    private TaskList tasks;
+    private History history;
+    private int batchInterval;
+    private final CommandRegistry commands = new CommandRegistry();
+    private final IntSupplier listSize = () -> tasks.size();
+    private Thread shutdownHook;
 
     /**
      * Creates a new Tommy chatbot instance.
-     * Initializes UI, storage, and attempts to load existing tasks from file.
+     * Initializes UI, journaled storage, and attempts to load existing tasks from file.
      * If loading fails, starts with an empty task list and shows an error message.
+     * Other lists, selected with "use NAME", are stored next to the file.
+     * Changes are written in the background and reach the disk within
+     * {@link Storage#DEFAULT_MAX_LAG_MILLIS} milliseconds.
      *
      * @param filePath the path to the file where tasks are stored
      */
     public Tommy(String filePath) {
+        this(filePath, Storage.DEFAULT_MAX_LAG_MILLIS);
+    }
+
+    /**
+     * Creates a new Tommy chatbot instance with a custom durability lag.
+     * Pending changes are flushed by {@link #close()} and when the JVM shuts down.
+     *
+     * @param filePath     the path to the file where tasks are stored
+     * @param maxLagMillis longest time a change may wait before it is written, or 0 to write it immediately
+     */
+    public Tommy(String filePath, long maxLagMillis) {
+        this(filePath, maxLagMillis, History.DEFAULT_DEPTH);
+    }
+
+    /**
+     * Creates a new Tommy chatbot instance with a custom durability lag and undo depth.
+     *
+     * @param filePath     the path to the file where tasks are stored
+     * @param maxLagMillis longest time a change may wait before it is written, or 0 to write it immediately
+     * @param historyDepth number of changes "undo" can revert in each list, or 0 to disable it
+     */
+    public Tommy(String filePath, long maxLagMillis, int historyDepth) {
         ui = new Ui();
-        storage = new Storage(filePath);
-        TaskList loadedTasks;
+        Path path = Path.of(filePath).toAbsolutePath();
+        lists = new ListCache(path.getParent(), ListCache.extensionOf(path), ListCache.DEFAULT_CAPACITY,
+                maxLagMillis, historyDepth);
+        String name = ListCache.nameOf(path);
+        ListCache.OpenList list;
         try {
-            loadedTasks = new TaskList(storage.load());
+            list = lists.open(name);
         } catch (TommyException e) {
-            ui.showError("Loading failed, starting fresh.");
-            loadedTasks = new TaskList();
+            ui.showError("Loading failed (" + e.getMessage() + "), starting fresh.");
+            list = lists.openEmpty(name);
+        }
+        mainSession = new Session(name);
+        session = mainSession;
+        select(list);
+        registerCommands();
+        Metrics.get().setListSize(listSize);
+        if (maxLagMillis > 0) {
+            shutdownHook = new Thread(this::close, "tommy-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
         }
-        tasks = loadedTasks;
     }
 
     /**
@@ -51,19 +116,67 @@ public class Tommy {
             String input = ui.readCommand().trim();
             assert input != null : "User input must not be null";
             if (input.equals("bye")) {
+                close();
                 ui.showLine();
                 ui.showGoodbye();
                 ui.showLine();
                 break;
             }
-            String response = getResponse(input); // no need for try-catch
-            assert response != null : "Response from getResponse should not be null";
             ui.showLine();
-            ui.showMessage(response);
+            try {
+                respond(input, ui.getOutput());
+            } catch (IOException e) {
+                ui.showError("Could not print the response.");
+            }
+            ui.showMessage("");
             ui.showLine();
         }
     }
 
+    /**
+     * Runs commands read one per line from {@code in}, writing each response on
+     * its own line to {@code out}, until the input ends or "bye" is read.
+     * Changes are group-committed every {@code commitInterval} commands and once
+     * more at the end, so a script pays for one disk flush per group instead of
+     * one per command. Blank lines are skipped.
+     *
+     * @param in             source of commands
+     * @param out            destination of responses
+     * @param commitInterval number of changes per storage commit
+     * @throws IOException if reading commands or writing responses fails
+     */
+    public void runBatch(BufferedReader in, Writer out, int commitInterval) throws IOException {
+        try {
+            storage.beginBatch(commitInterval);
+        } catch (TommyException e) {
+            ui.showError(e.getMessage());
+            return;
+        }
+        batchInterval = commitInterval;
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String input = line.trim();
+                if (input.isEmpty()) {
+                    continue;
+                }
+                respond(input, out);
+                out.write(System.lineSeparator());
+                if (input.equals("bye")) {
+                    break;
+                }
+            }
+        } finally {
+            out.flush();
+            batchInterval = 0;
+            try {
+                storage.endBatch();
+            } catch (TommyException e) {
+                ui.showError(e.getMessage());
+            }
+        }
+    }
+
     /**
      * Processes a user command and returns the appropriate response string.
      * This method is primarily used by the GUI version of the application.
@@ -73,7 +186,20 @@ public class Tommy {
      * @return the response message from Tommy (success message, error, or goodbye)
      */
     public String getResponse(String input) {
+        return getResponse(mainSession, input);
+    }
+
+    /**
+     * Processes a user command for the given session. The caller must make sure
+     * that only one command runs against this Tommy at a time.
+     *
+     * @param session the conversation the command belongs to
+     * @param input   the raw command string entered by the user
+     * @return the response message from Tommy
+     */
+    String getResponse(Session session, String input) {
         try {
+            enter(session);
             if (input.equals("bye")) {
                 return "Bye. Hope to see you again soon!";
             }
@@ -83,44 +209,76 @@ public class Tommy {
         }
     }
 
+    /**
+     * Returns whether the input is a command that only reads the task list.
+     * Such commands stop with a {@link java.util.concurrent.CancellationException}
+     * when the thread running them is interrupted, and can be cancelled safely.
+     *
+     * @param input the raw command string entered by the user
+     * @return true if the command changes nothing
+     */
+    public boolean isQuery(String input) {
+        return commands.isQuery(input);
+    }
+
+    /**
+     * Writes out any buffered changes of every loaded list and releases their journal files.
+     * The list size published by {@link Metrics} stops following this instance,
+     * and the shutdown hook that would have closed it is removed, so a closed
+     * instance can be garbage-collected. Tommy can still be used afterwards;
+     * changes are then written within the lag, and close it again to flush them.
+     */
+    public void close() {
+        Metrics.get().clearListSize(listSize);
+        removeShutdownHook();
+        lists.closeAll();
+    }
+
+    private synchronized void removeShutdownHook() {
+        if (shutdownHook == null || Thread.currentThread() == shutdownHook) {
+            return;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // The JVM is shutting down, and the hook runs or has run.
+        }
+        shutdownHook = null;
+    }
+
     /* ================= COMMAND EXECUTION ================= */
 
     /**
-     * Executes the appropriate command handler based on the input string
-     * and returns a success message (or throws exception on invalid command).
+     * Registers the handler for every command word.
+     */
+    private void registerCommands() {
+        commands.register("todo", this::handleTodo);
+        commands.register("deadline", this::handleDeadline);
+        commands.register("event", this::handleEvent);
+        commands.registerQuery("list", this::listToString);
+        commands.register("mark", this::markTask);
+        commands.register("unmark", this::unmarkTask);
+        commands.register("delete", this::deleteTask);
+        commands.registerQuery("find", this::findToString);
+        commands.registerQuery("due", this::dueToString);
+        commands.registerQuery("upcoming", this::upcomingToString);
+        commands.registerQuery("conflicts", this::conflictsToString);
+        commands.register("undo", this::undo);
+        commands.register("redo", this::redo);
+        commands.register("use", this::useList);
+        commands.registerQuery("stats", arguments -> Metrics.get().report(tasks.size()));
+    }
+
+    /**
+     * Executes the command handler registered for the input's command word
+     * and returns its response (or throws exception on invalid command).
      *
      * @param input the full user command
      * @return a confirmation/success message for the executed command
      * @throws TommyException if the command is not recognized
      */
     private String executeCommand(String input) throws TommyException {
-        if (input.startsWith("todo")) {
-            handleTodo(input);
-            return "Added todo task.";
-        } else if (input.startsWith("deadline")) {
-            handleDeadline(input);
-            return "Added deadline task.";
-        } else if (input.startsWith("event")) {
-            handleEvent(input);
-            return "Added event task.";
-        } else if (input.equals("list")) {
-            return listToString();
-        } else if (input.startsWith("mark")) {
-            markTask(input);
-            return "Task marked as done.";
-        } else if (input.startsWith("unmark")) {
-            unmarkTask(input);
-            return "Task marked as not done.";
-        } else if (input.startsWith("delete")) {
-            deleteTask(input);
-            return "Task deleted.";
-        } else if (input.startsWith("find")) {
-            return findToString(input);
-        } else {
-            throw new TommyException(
-                    "I'm sorry, but I don't know what that means :-("
-            );
-        }
+        return commands.execute(input);
     }
 
     /* ================= ADD TASKS ================= */
@@ -128,11 +286,11 @@ public class Tommy {
     /**
      * Handles the "todo" command: creates and adds a new Todo task.
      *
-     * @param input the full user command (e.g. "todo read book")
+     * @param desc the task description (e.g. "read book")
+     * @return a confirmation message
      * @throws TommyException if the description is empty
      */
-    private void handleTodo(String input) throws TommyException {
-        String desc = input.replaceFirst("todo", "").trim();
+    private String handleTodo(String desc) throws TommyException {
         if (desc.isEmpty()) {
             throw new TommyException(
                     "The description of a todo cannot be empty."
@@ -140,18 +298,20 @@ public class Tommy {
         }
         Task task = new Todo(desc);
         tasks.add(task);
-        storage.save(tasks);
+        storage.saveAdd(tasks, task);
+        history.record(new History.Change(History.Kind.ADD, List.of(task)));
+        return "Added todo task.";
     }
 
     /**
      * Handles the "deadline" command: creates and adds a new Deadline task.
      *
-     * @param input the full user command (e.g. "deadline submit report /by 2025-12-31")
+     * @param data the command arguments (e.g. "submit report /by 2025-12-31")
+     * @return a confirmation message
      * @throws TommyException if description is empty or date format is invalid
      */
-    private void handleDeadline(String input) throws TommyException {
-        String data = input.replaceFirst("deadline", "").trim();
-        String[] parts = data.split("/by", 2);
+    private String handleDeadline(String data) throws TommyException {
+        String[] parts = BY.split(data, 2);
         if (parts.length < 2 || parts[0].trim().isEmpty()) {
             throw new TommyException(
                     "The description of a deadline cannot be empty."
@@ -159,9 +319,14 @@ public class Tommy {
         }
         try {
             LocalDate date = LocalDate.parse(parts[1].trim());
+            if (!Deadline.isSupported(date)) {
+                throw new TommyException("That date is too far away.");
+            }
             Task task = new Deadline(parts[0].trim(), date);
             tasks.add(task);
-            storage.save(tasks);
+            storage.saveAdd(tasks, task);
+            history.record(new History.Change(History.Kind.ADD, List.of(task)));
+            return "Added deadline task.";
         } catch (DateTimeParseException e) {
             throw new TommyException(
                     "Please use date format yyyy-MM-dd."
@@ -171,62 +336,377 @@ public class Tommy {
 
     /**
      * Handles the "event" command: creates and adds a new Event task.
+     * Warns if the new event overlaps events already in the list.
      *
-     * @param input the full user command (e.g. "event meeting /from Mon 2pm /to 4pm")
+     * @param data the command arguments (e.g. "meeting /from Mon 2pm /to 4pm")
+     * @return a confirmation message, with any overlapping events listed
      * @throws TommyException if description is empty or format is incomplete
      */
-    private void handleEvent(String input) throws TommyException {
-        String data = input.replaceFirst("event", "").trim();
-        String[] parts = data.split("/from|/to");
+    private String handleEvent(String data) throws TommyException {
+        String[] parts = FROM_OR_TO.split(data);
         if (parts.length < 3 || parts[0].trim().isEmpty()) {
             throw new TommyException(
                     "The description of an event cannot be empty."
             );
         }
-        Task task = new Event(parts[0].trim(), parts[1].trim(), parts[2].trim());
+        Event task = new Event(parts[0].trim(), parts[1].trim(), parts[2].trim());
+        List<Event> overlaps = tasks.findOverlappingEvents(task);
         tasks.add(task);
-        storage.save(tasks);
+        storage.saveAdd(tasks, task);
+        history.record(new History.Change(History.Kind.ADD, List.of(task)));
+        String added = "Added event task.";
+        if (overlaps.isEmpty()) {
+            return added;
+        }
+        return added + "\n" + eventsToString("Note: it overlaps with:\n", overlaps);
     }
 
     /* ================= LIST ================= */
 
     /**
-     * Generates a formatted string listing all current tasks.
+     * Generates one page of the task list. Arguments select the page:
+     * none for the first page, "page N" for page N, or "next" for the page
+     * after the one shown last.
      *
-     * @return a multi-line string showing the task list (or empty message)
+     * @param arguments the command arguments
+     * @return a multi-line string showing the page (or empty message)
+     * @throws TommyException if the arguments or the page number are invalid
      */
-    private String listToString() {
-        if (tasks.size() == 0) {
-            return "Your task list is empty!";
+    private String listToString(String arguments) throws TommyException {
+        int page;
+        if (arguments.isEmpty()) {
+            page = 1;
+        } else if (arguments.equals("next")) {
+            page = session.listPage + 1;
+        } else if (arguments.startsWith("page ")) {
+            page = parsePage(arguments.substring("page ".length()).trim(), "list page N");
+        } else {
+            throw new TommyException("I'm sorry, but I don't know what that means :-(");
         }
-        StringBuilder sb = new StringBuilder("Here are the tasks in your list:\n");
-        for (int i = 0; i < tasks.size(); i++) {
-            sb.append(i + 1).append(". ").append(tasks.get(i)).append("\n");
+        Listing listing = listAll();
+        if (arguments.equals("next") && page > listing.getPageCount(PAGE_SIZE)) {
+            return "There are no more tasks to show.";
+        }
+        String response = listing.renderPage(page, PAGE_SIZE);
+        session.listPage = page;
+        return response;
+    }
+
+    private Listing listAll() {
+        return new Listing("Here are the tasks in your list:", tasks.getTasks(), "Your task list is empty!", "list");
+    }
+
+    /**
+     * Parses a 1-based page number.
+     *
+     * @param field  the text holding the number
+     * @param format the expected command format, for the error message
+     * @return the page number
+     * @throws TommyException if the number is missing or not positive
+     */
+    private int parsePage(String field, String format) throws TommyException {
+        try {
+            int page = Integer.parseInt(field);
+            if (page <= 0) {
+                throw new NumberFormatException();
+            }
+            return page;
+        } catch (NumberFormatException e) {
+            throw new TommyException("Please use the format: " + format);
+        }
+    }
+
+    /* ================= STREAMING ================= */
+
+    /**
+     * Writes the response to a command to {@code out}. Unlike {@link #getResponse},
+     * "list" and "find" without a page write every task, line by line, so even
+     * very long output is never held in memory at once. Used by front ends that
+     * write to a stream (the CLI and batch mode; the server uses {@link #reply}).
+     *
+     * @param input the raw command string entered by the user
+     * @param out   destination of the response
+     * @throws IOException if writing to {@code out} fails
+     */
+    public void respond(String input, Appendable out) throws IOException {
+        reply(mainSession, input).writeTo(out);
+    }
+
+    /**
+     * Runs a command of the given session and returns its response, to be written
+     * once the caller has released its lock on this Tommy, so that a slow reader
+     * does not hold up other commands. "list" and "find" without a page reply
+     * with a listing over a snapshot of the tasks (the lists Tommy opens are
+     * {@link ConcurrentTaskList}s, whose {@link TaskList#getTasks()} is one), so
+     * commands run in the meantime do not change which tasks are written.
+     * The caller must make sure that only one command runs at a time.
+     *
+     * @param session the conversation the command belongs to
+     * @param input   the raw command string entered by the user
+     * @return the response, not yet written
+     */
+    Reply reply(Session session, String input) {
+        String trimmed = input.trim();
+        String word = Parser.getCommandWord(trimmed);
+        String arguments = Parser.getArguments(trimmed);
+        long start = System.nanoTime();
+        try {
+            enter(session);
+            Listing listing = null;
+            if (word.equals("list") && arguments.isEmpty()) {
+                listing = listAll();
+            } else if (word.equals("find") && !arguments.isEmpty() && !arguments.equals("next")
+                    && !arguments.startsWith("page ")) {
+                listing = findAll(arguments);
+            }
+            if (listing != null) {
+                Metrics.get().recordCommand(word, System.nanoTime() - start);
+                return listing::writeAll;
+            }
+        } catch (TommyException e) {
+            String message = e.getMessage();
+            return out -> out.append(message);
+        }
+        String response = getResponse(session, trimmed);
+        return out -> out.append(response);
+    }
+
+    /**
+     * A response to a command, written after the command has run.
+     */
+    @FunctionalInterface
+    interface Reply {
+        /**
+         * Writes the response.
+         *
+         * @param out destination of the response
+         * @throws IOException if writing to {@code out} fails
+         */
+        void writeTo(Appendable out) throws IOException;
+    }
+
+    /**
+     * Returns a new session that starts on the list the CLI or GUI conversation is using.
+     *
+     * @return the session
+     */
+    Session newSession() {
+        return new Session(mainSession.listName);
+    }
+
+    /* ================= LISTS ================= */
+
+    /**
+     * Handles the "use" command, which switches to another named list,
+     * creating it if it does not exist. Without a name, shows the current list.
+     *
+     * @param arguments name of the list to use (may be empty)
+     * @return confirmation message
+     * @throws TommyException if the name is invalid or the list cannot be loaded
+     */
+    private String useList(String arguments) throws TommyException {
+        if (arguments.isEmpty()) {
+            return "You are using the list \"" + session.listName + "\".";
+        }
+        if (!ListCache.isValidName(arguments)) {
+            throw new TommyException("List names may only contain letters, digits, '-' and '_'.");
+        }
+        if (!arguments.equals(session.listName)) {
+            switchTo(lists.open(arguments));
+            session.listName = arguments;
+            session.listPage = 0;
+            session.lastFind = null;
+        }
+        return "Now using the list \"" + session.listName + "\" (" + tasks.size() + " tasks).";
+    }
+
+    /**
+     * Makes the given list the one that commands act on. During a batch, the
+     * previous list's changes are committed and the new list joins the batch.
+     *
+     * @param list the list to switch to
+     * @throws TommyException if committing or starting the batch fails
+     */
+    private void switchTo(ListCache.OpenList list) throws TommyException {
+        if (batchInterval > 0) {
+            storage.endBatch();
+            list.storage.beginBatch(batchInterval);
+        }
+        select(list);
+    }
+
+    private void select(ListCache.OpenList list) {
+        storage = list.storage;
+        tasks = list.tasks;
+        history = list.history;
+    }
+
+    /**
+     * Makes the given session the one whose commands run next, switching to
+     * its list if another session's list is selected. Opening the list also
+     * reloads it if it was evicted from the cache.
+     *
+     * @param next the session
+     * @throws TommyException if the session's list cannot be loaded
+     */
+    private void enter(Session next) throws TommyException {
+        session = next;
+        ListCache.OpenList list = lists.open(next.listName);
+        if (list.storage != storage) {
+            switchTo(list);
         }
-        return sb.toString();
     }
 
     /* ================= FIND ================= */
 
     /**
-     * Generates a formatted string listing tasks that match the search keyword(s).
+     * Generates one page of the tasks that match the search keyword(s).
+     * With "/top N", lists only the N most relevant tasks, tolerating typos.
+     * "find page N KEYWORDS" shows page N, and "find next" shows the next page
+     * of the last search (or searches for "next" if there was none).
      *
-     * @param input the full find command (e.g. "find book")
+     * @param keyword the search keywords (e.g. "book" or "/top 5 bok")
      * @return a multi-line string showing matching tasks (or no-match message)
+     * @throws TommyException if no keyword is provided or the page is invalid
+     */
+    private String findToString(String keyword) throws TommyException {
+        if (keyword.equals("next") && session.lastFind != null) {
+            if (session.findPage >= session.lastFind.getPageCount(PAGE_SIZE)) {
+                return "There are no more matching tasks to show.";
+            }
+            session.findPage++;
+            return session.lastFind.renderPage(session.findPage, PAGE_SIZE);
+        }
+        int page = 1;
+        if (keyword.startsWith("page ")) {
+            String[] parts = WHITESPACE.split(keyword.substring("page ".length()).trim(), 2);
+            page = parsePage(parts[0], "find page N KEYWORDS");
+            keyword = parts.length < 2 ? "" : parts[1];
+        }
+        Listing listing = findAll(keyword);
+        String response = listing.renderPage(page, PAGE_SIZE);
+        session.lastFind = listing;
+        session.findPage = page;
+        return response;
+    }
+
+    /**
+     * Searches for the keyword(s) and returns every match as a listing.
+     *
+     * @param keyword the search keywords (e.g. "book" or "/top 5 bok")
+     * @return the matching tasks
      * @throws TommyException if no keyword is provided
      */
-    private String findToString(String input) throws TommyException {
-        String keyword = input.replaceFirst("find", "").trim();
+    private Listing findAll(String keyword) throws TommyException {
         if (keyword.isEmpty()) {
             throw new TommyException("Please provide a keyword to search for.");
         }
-        ArrayList<Task> matches = tasks.findTasks(keyword);
-        if (matches.isEmpty()) {
-            return "No matching tasks found.";
+        if (keyword.startsWith("/top")) {
+            String[] parts = WHITESPACE.split(TOP.matcher(keyword).replaceFirst("").trim(), 2);
+            int limit = parseLimit(parts[0]);
+            if (parts.length < 2) {
+                throw new TommyException("Please provide a keyword to search for.");
+            }
+            return new Listing("Here are the best matching tasks:", tasks.findTasks(parts[1], limit),
+                    NO_MATCHING_TASKS, "find");
         }
-        StringBuilder sb = new StringBuilder("Here are the matching tasks:\n");
-        for (int i = 0; i < matches.size(); i++) {
-            sb.append(i + 1).append(". ").append(matches.get(i)).append("\n");
+        return new Listing("Here are the matching tasks:", tasks.findTasks(keyword),
+                NO_MATCHING_TASKS, "find");
+    }
+
+    /* ================= DEADLINE QUERIES ================= */
+
+    /**
+     * Lists undone deadlines due before a date or between two dates.
+     *
+     * @param arguments the command arguments (e.g. "before 2026-12-01"
+     *                  or "between 2026-01-01 and 2026-01-31")
+     * @return a multi-line string showing matching deadlines (or no-match message)
+     * @throws TommyException if the command or a date is malformed
+     */
+    private String dueToString(String arguments) throws TommyException {
+        String[] words = WHITESPACE.split(arguments);
+        List<Deadline> matches;
+        if (words.length == 2 && words[0].equals("before")) {
+            matches = tasks.findDeadlinesBefore(parseDate(words[1]));
+        } else if (words.length == 4 && words[0].equals("between") && words[2].equals("and")) {
+            matches = tasks.findDeadlinesBetween(parseDate(words[1]), parseDate(words[3]));
+        } else {
+            throw new TommyException("Please use: due before yyyy-MM-dd, or due between yyyy-MM-dd and yyyy-MM-dd");
+        }
+        return deadlinesToString(matches);
+    }
+
+    /**
+     * Lists the next N undone deadlines due from today onwards.
+     *
+     * @param arguments the number of deadlines to show (e.g. "10")
+     * @return a multi-line string showing the deadlines (or no-match message)
+     * @throws TommyException if N is missing or not a positive number
+     */
+    private String upcomingToString(String arguments) throws TommyException {
+        int limit;
+        try {
+            limit = Integer.parseInt(arguments);
+        } catch (NumberFormatException e) {
+            limit = 0;
+        }
+        if (limit <= 0) {
+            throw new TommyException("Please use the format: upcoming N");
+        }
+        return deadlinesToString(tasks.findUpcomingDeadlines(LocalDate.now(), limit));
+    }
+
+    private String deadlinesToString(List<Deadline> deadlines) {
+        if (deadlines.isEmpty()) {
+            return "No matching deadlines found.";
+        }
+        StringBuilder sb = new StringBuilder("Here are the matching deadlines:\n");
+        for (int i = 0; i < deadlines.size(); i++) {
+            Deadline deadline = deadlines.get(i);
+            sb.append(i + 1).append(". ").append(deadline).append(" (#").append(deadline.getId()).append(")\n");
+        }
+        return sb.toString();
+    }
+
+    private LocalDate parseDate(String text) throws TommyException {
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new TommyException("Please use date format yyyy-MM-dd.");
+        }
+    }
+
+    /* ================= EVENT CONFLICTS ================= */
+
+    /**
+     * Lists the events whose time range overlaps the specified event.
+     *
+     * @param arguments the 1-based task number (e.g. "3") or task ID (e.g. "#42")
+     * @return a multi-line string showing overlapping events (or no-conflict message)
+     * @throws TommyException if the task number is invalid or is not an event
+     */
+    private String conflictsToString(String arguments) throws TommyException {
+        Task task = TaskSelector.selectOne(tasks, arguments);
+        if (!(task instanceof Event)) {
+            throw new TommyException("That task is not an event.");
+        }
+        Event event = (Event) task;
+        if (!event.hasTimes()) {
+            throw new TommyException("That event's times are not in yyyy-MM-dd HH:mm format.");
+        }
+        List<Event> overlaps = tasks.findOverlappingEvents(event);
+        if (overlaps.isEmpty()) {
+            return "No conflicting events found.";
+        }
+        return eventsToString("Here are the conflicting events:\n", overlaps);
+    }
+
+    private String eventsToString(String header, List<Event> events) {
+        StringBuilder sb = new StringBuilder(header);
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            sb.append(i + 1).append(". ").append(event).append(" (#").append(event.getId()).append(")\n");
         }
         return sb.toString();
     }
@@ -234,74 +714,196 @@ public class Tommy {
     /* ================= MARK / UNMARK ================= */
 
     /**
-     * Marks the specified task as done.
+     * Marks the specified tasks as done, saving them as one change.
      *
-     * @param input the full mark command (e.g. "mark 3")
-     * @throws TommyException if the task number is invalid
+     * @param arguments a task number (e.g. "3"), task ID (e.g. "#42"), range or list
+     *                  (e.g. "1-500" or "3,7,19") or filter (e.g. "undone" or "type:D")
+     * @return a confirmation message, or how many tasks were marked
+     * @throws TommyException if a task number or ID is invalid
      */
-    private void markTask(String input) throws TommyException {
-        int idx = parseIndex(input);
-        Task task = tasks.get(idx);
-        task.markDone();
-        storage.save(tasks);
+    private String markTask(String arguments) throws TommyException {
+        List<Task> selected = TaskSelector.select(tasks, arguments);
+        if (selected.isEmpty()) {
+            return NO_MATCHING_TASKS;
+        }
+        List<Task> changed = withDone(selected, false);
+        tasks.markAllDone(selected);
+        storage.saveMark(tasks, selected);
+        history.record(new History.Change(History.Kind.MARK, changed));
+        if (TaskSelector.isSingle(arguments)) {
+            return "Task marked as done.";
+        }
+        return "Marked " + countOf(selected) + " as done.";
     }
 
     /**
-     * Marks the specified task as not done.
+     * Marks the specified tasks as not done, saving them as one change.
      *
-     * @param input the full unmark command (e.g. "unmark 3")
-     * @throws TommyException if the task number is invalid
+     * @param arguments the tasks, in any form {@link #markTask} accepts
+     * @return a confirmation message, or how many tasks were unmarked
+     * @throws TommyException if a task number or ID is invalid
      */
-    private void unmarkTask(String input) throws TommyException {
-        int idx = parseIndex(input);
-        Task task = tasks.get(idx);
-        task.unmarkDone();
-        storage.save(tasks);
+    private String unmarkTask(String arguments) throws TommyException {
+        List<Task> selected = TaskSelector.select(tasks, arguments);
+        if (selected.isEmpty()) {
+            return NO_MATCHING_TASKS;
+        }
+        List<Task> changed = withDone(selected, true);
+        tasks.unmarkAllDone(selected);
+        storage.saveUnmark(tasks, selected);
+        history.record(new History.Change(History.Kind.UNMARK, changed));
+        if (TaskSelector.isSingle(arguments)) {
+            return "Task marked as not done.";
+        }
+        return "Marked " + countOf(selected) + " as not done.";
     }
 
     /* ================= DELETE ================= */
 
     /**
-     * Deletes the task at the specified index.
+     * Deletes the specified tasks, saving them as one change. Positions refer to
+     * the list before the command, and deleting leaves the IDs of all other tasks
+     * unchanged, so references to them stay valid.
+     *
+     * @param arguments the tasks, in any form {@link #markTask} accepts
+     * @return a confirmation message, or how many tasks were deleted
+     * @throws TommyException if a task number or ID is invalid
+     */
+    private String deleteTask(String arguments) throws TommyException {
+        List<Task> selected = TaskSelector.select(tasks, arguments);
+        if (selected.isEmpty()) {
+            return NO_MATCHING_TASKS;
+        }
+        tasks.removeAll(selected);
+        storage.saveDelete(tasks, selected);
+        history.record(new History.Change(History.Kind.DELETE, selected));
+        if (TaskSelector.isSingle(arguments)) {
+            return "Task deleted.";
+        }
+        return "Deleted " + countOf(selected) + ".";
+    }
+
+    /* ================= UNDO / REDO ================= */
+
+    /**
+     * Handles the "undo" command: reverts the latest add, mark, unmark or delete
+     * in the current list, or the latest redo.
      *
-     * @param input the full delete command (e.g. "delete 2")
-     * @throws TommyException if the task number is invalid
+     * @param arguments ignored
+     * @return what was undone
+     * @throws TommyException if the change cannot be saved
      */
-    private void deleteTask(String input) throws TommyException {
-        int idx = parseIndex(input);
-        tasks.remove(idx);
-        storage.save(tasks);
+    private String undo(String arguments) throws TommyException {
+        History.Change change = history.undo(tasks, storage);
+        if (change == null) {
+            return "Nothing to undo.";
+        }
+        return "Undid " + change.describe() + ".";
+    }
+
+    /**
+     * Handles the "redo" command: makes the latest undone change again.
+     * Any other change clears what can be redone.
+     *
+     * @param arguments ignored
+     * @return what was redone
+     * @throws TommyException if the change cannot be saved
+     */
+    private String redo(String arguments) throws TommyException {
+        History.Change change = history.redo(tasks, storage);
+        if (change == null) {
+            return "Nothing to redo.";
+        }
+        return "Redid " + change.describe() + ".";
     }
 
     /* ================= HELPERS ================= */
 
+    private static String countOf(List<Task> selected) {
+        return selected.size() + (selected.size() == 1 ? " task" : " tasks");
+    }
+
     /**
-     * Parses a task index from commands like mark/unmark/delete.
-     * Expects format: command N (where N is 1-based)
+     * Returns the selected tasks whose done state is {@code isDone}, that is,
+     * the ones marking or unmarking them to the other state actually changes.
+     */
+    private static List<Task> withDone(List<Task> selected, boolean isDone) {
+        List<Task> matching = new ArrayList<>();
+        for (Task task : selected) {
+            if (task.getDone() == isDone) {
+                matching.add(task);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Parses the result limit of "find /top N".
      *
-     * @param input the full command string
-     * @return 0-based index of the task
-     * @throws TommyException if the number is missing or invalid
+     * @param field the text after "/top"
+     * @return the positive limit
+     * @throws TommyException if the limit is missing or not a positive number
      */
-    private int parseIndex(String input) throws TommyException {
-        assert input != null : "Input to parseIndex must not be null";
+    private int parseLimit(String field) throws TommyException {
         try {
-            int idx = Integer.parseInt(input.split(" ")[1]) - 1;
-            if (idx < 0 || idx >= tasks.size()) {
+            int limit = Integer.parseInt(field);
+            if (limit <= 0) {
                 throw new NumberFormatException();
             }
-            return idx;
-        } catch (Exception e) {
-            throw new TommyException("Please provide a valid task number.");
+            return limit;
+        } catch (NumberFormatException e) {
+            throw new TommyException("Please use the format: find /top N KEYWORDS");
         }
     }
 
     /**
      * Entry point for running Tommy in command-line mode.
+     * Usage: {@code [DATA_FILE] [--batch [SCRIPT|-]] [--commit-every N] [--undo-depth N]}.
+     * With {@code --batch}, commands are read from the script (or standard input
+     * for "-" or no script) and only the responses are printed.
+     * {@code --undo-depth} sets how many changes "undo" can revert (0 disables it).
      *
-     * @param args command-line arguments (not used)
+     * @param args optional path to the data file (defaults to data/tommy.txt) and batch options
+     * @throws IOException if the batch script cannot be read
      */
-    public static void main(String[] args) {
-        new Tommy("data/tommy.txt").run();
+    public static void main(String[] args) throws IOException {
+        String filePath = "data/tommy.txt";
+        String script = null;
+        boolean isBatch = false;
+        int commitInterval = DEFAULT_COMMIT_INTERVAL;
+        int historyDepth = History.DEFAULT_DEPTH;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--batch")) {
+                    isBatch = true;
+                    if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                        script = args[++i];
+                    }
+                } else if (args[i].equals("--commit-every") && i + 1 < args.length) {
+                    commitInterval = Math.max(1, Integer.parseInt(args[++i]));
+                } else if (args[i].equals("--undo-depth") && i + 1 < args.length) {
+                    historyDepth = Math.max(0, Integer.parseInt(args[++i]));
+                } else {
+                    filePath = args[i];
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Usage: Tommy [DATA_FILE] [--batch [SCRIPT|-]] [--commit-every N] [--undo-depth N]");
+            return;
+        }
+
+        Tommy tommy = new Tommy(filePath, Storage.DEFAULT_MAX_LAG_MILLIS, historyDepth);
+        Metrics.get().registerMBean();
+        if (!isBatch) {
+            tommy.run();
+            return;
+        }
+        BufferedReader in = (script == null || script.equals("-"))
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(script), StandardCharsets.UTF_8);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try (in) {
+            tommy.runBatch(in, out, commitInterval);
+        }
     }
 }
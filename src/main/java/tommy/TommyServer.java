@@ -0,0 +1,179 @@
+package tommy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import tommy.metrics.Metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless HTTP front end for Tommy, so that many local scripts and dashboards
+ * can share one loaded task list.
+ *
+ * <p>Each request is a {@code POST /} whose body is one command, exactly as it
+ * would be typed into the CLI; the response body is Tommy's reply as plain text,
+ * streamed as it is produced.
+ * The server only listens on the loopback address.
+ *
+ * <p>Requests that carry the same {@value #SESSION_HEADER} header belong to one
+ * session, which keeps its own list chosen with "use" and its own place in
+ * "list next" and "find next". A request without the header runs in a session
+ * of its own. Only the most recently used sessions are kept, so an idle
+ * client's session is eventually forgotten.
+ *
+ * <p>Connections are handled on virtual threads when the running JVM has them
+ * (Java 21+), and on a cached thread pool otherwise. Commands still run one at
+ * a time against the shared {@link Tommy}, but the lock is released before the
+ * response is written, so a client that reads slowly only holds up itself; the
+ * threads let hundreds of clients wait on the network without blocking each other.
+ */
+public class TommyServer {
+    /** Port used when none is given on the command line. */
+    public static final int DEFAULT_PORT = 4040;
+
+    /** Request header that names the client's session. */
+    public static final String SESSION_HEADER = "X-Tommy-Session";
+    private static final int BACKLOG = 1024;
+    private static final int MAX_SESSIONS = 1024;
+
+    private final Tommy tommy;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    /** Sessions by name, in least-recently-used order; guarded by the lock on {@link #tommy}. */
+    private final Map<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+            return size() > MAX_SESSIONS;
+        }
+    };
+
+    /**
+     * Creates a server for the given Tommy instance. The server does not accept
+     * connections until {@link #start()} is called.
+     *
+     * @param tommy the chatbot that answers commands
+     * @param port  port to listen on, or 0 to pick a free one
+     * @throws IOException if the port cannot be bound
+     */
+    public TommyServer(Tommy tommy, int port) throws IOException {
+        this.tommy = tommy;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        this.executor = newConnectionExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts accepting connections in the background.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting connections, waits briefly for running requests, and
+     * writes out any buffered changes.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        synchronized (tommy) {
+            tommy.close();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                send(exchange, 405, "Send commands with POST.");
+                return;
+            }
+            String input;
+            try (InputStream body = exchange.getRequestBody()) {
+                input = new String(body.readAllBytes(), StandardCharsets.UTF_8).trim();
+            }
+            String sessionName = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+            Tommy.Reply reply;
+            synchronized (tommy) {
+                reply = tommy.reply(sessionFor(sessionName), input);
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            // Length 0 selects chunked encoding, so long lists are streamed as they are written.
+            exchange.sendResponseHeaders(200, 0);
+            try (Writer out = new BufferedWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                reply.writeTo(out);
+            }
+        }
+    }
+
+    /**
+     * Returns the named session, creating it on first use, or a new session if there is no name.
+     * Must be called while holding the lock on {@link #tommy}.
+     */
+    private Session sessionFor(String name) {
+        if (name == null) {
+            return tommy.newSession();
+        }
+        return sessions.computeIfAbsent(name, key -> tommy.newSession());
+    }
+
+    private static void send(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Returns a thread-per-task executor on virtual threads if the JVM supports
+     * them. The build targets Java 17, so the factory is looked up reflectively.
+     */
+    static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Entry point for running Tommy as a local server.
+     *
+     * @param args optional path to the data file (defaults to data/tommy.txt) and port (defaults to 4040)
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        Tommy tommy = new Tommy(args.length > 0 ? args[0] : "data/tommy.txt");
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+        TommyServer server = new TommyServer(tommy, port);
+        Metrics.get().registerMBean();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+        System.out.println("Tommy is listening on http://localhost:" + server.getPort() + "/");
+    }
+}
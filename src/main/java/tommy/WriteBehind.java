@@ -0,0 +1,135 @@
+package tommy;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs storage writes on a single background thread so that callers never wait for the disk.
+ *
+ * <p>Writes run in submission order. Their results are only forced out by the
+ * flush action, which runs at most {@code maxLagMillis} after the first write
+ * that is not yet flushed, so a burst of writes shares one flush. {@link #flush()}
+ * waits for everything submitted so far to be written and flushed.
+ *
+ * <p>A write or flush that fails on the background thread is reported on
+ * {@code System.err}, and the next {@link #submit} or {@link #flush()} throws a
+ * {@link TommyException} that names it and warns that later changes may be lost
+ * with it, since the caller has long since been told its change was saved.
+ */
+class WriteBehind {
+    private static final long IDLE_SECONDS = 30;
+    private static final String FLUSH = "the latest changes";
+
+    /**
+     * A write to perform on the background thread.
+     */
+    @FunctionalInterface
+    interface Write {
+        void run() throws IOException, TommyException;
+    }
+
+    private final Write flushAction;
+    private final long maxLagMillis;
+    private final ScheduledThreadPoolExecutor executor;
+    private volatile Thread writerThread;
+    private boolean isFlushScheduled;
+    private String failure;
+
+    /**
+     * Creates a write-behind queue.
+     *
+     * @param flushAction  makes every write done so far durable
+     * @param maxLagMillis longest time a write may wait before it is flushed
+     */
+    WriteBehind(Write flushAction, long maxLagMillis) {
+        assert maxLagMillis > 0 : "Maximum lag must be positive";
+        this.flushAction = flushAction;
+        this.maxLagMillis = maxLagMillis;
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "tommy-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setKeepAliveTime(IDLE_SECONDS, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queues a write and makes sure a flush follows within the maximum lag.
+     *
+     * @param description what the write saves, such as "mark #3", to name it if it fails
+     * @param write       the write to perform
+     * @throws TommyException if an earlier background write failed; the write is queued all the same
+     */
+    synchronized void submit(String description, Write write) throws TommyException {
+        executor.execute(() -> run(description, write));
+        if (!isFlushScheduled) {
+            isFlushScheduled = true;
+            executor.schedule(this::runScheduledFlush, maxLagMillis, TimeUnit.MILLISECONDS);
+        }
+        throwPendingFailure();
+    }
+
+    /**
+     * Waits until every submitted write has been performed and flushed.
+     * Must not be called from the background thread.
+     *
+     * @throws TommyException if a background write or the flush failed
+     */
+    void flush() throws TommyException {
+        assert !isWriterThread() : "flush() would wait for itself";
+        Future<?> done = executor.submit(() -> run(FLUSH, flushAction));
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        synchronized (this) {
+            throwPendingFailure();
+        }
+    }
+
+    /**
+     * Returns whether the calling thread is the background writer.
+     *
+     * @return true if called from a queued write or flush
+     */
+    boolean isWriterThread() {
+        return Thread.currentThread() == writerThread;
+    }
+
+    private void runScheduledFlush() {
+        synchronized (this) {
+            isFlushScheduled = false;
+        }
+        run(FLUSH, flushAction);
+    }
+
+    private void run(String description, Write write) {
+        writerThread = Thread.currentThread();
+        try {
+            write.run();
+        } catch (IOException | TommyException e) {
+            System.err.println("Background save of " + description + " failed: " + e.getMessage());
+            synchronized (this) {
+                if (failure == null) {
+                    failure = description + " (" + e.getMessage() + ")";
+                }
+            }
+        }
+    }
+
+    private void throwPendingFailure() throws TommyException {
+        if (failure != null) {
+            String failed = failure;
+            failure = null;
+            throw new TommyException("Error saving data: an earlier change, " + failed
+                    + ", could not be saved, and changes made since then may be lost");
+        }
+    }
+}
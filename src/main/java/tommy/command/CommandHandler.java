@@ -0,0 +1,18 @@
+package tommy.command;
+
+import tommy.TommyException;
+
+/**
+ * Handles one kind of command, given the text that follows the command word.
+ */
+@FunctionalInterface
+public interface CommandHandler {
+    /**
+     * Executes the command.
+     *
+     * @param arguments the input after the command word, trimmed (empty if none)
+     * @return the response message for the user
+     * @throws TommyException if the arguments are invalid or the command fails
+     */
+    String handle(String arguments) throws TommyException;
+}
@@ -0,0 +1,103 @@
+package tommy.command;
+
+import tommy.Parser;
+import tommy.TommyException;
+import tommy.metrics.Metrics;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps command words to their handlers.
+ * Dispatch is a single hash lookup on the exact command word, so its cost does
+ * not grow with the number of commands, and a command such as "marker" can
+ * never be mistaken for "mark".
+ *
+ * <p>Commands registered with {@link #registerQuery} only read the task list,
+ * so front ends may safely cancel them part-way through.
+ *
+ * <p>The time each command takes is recorded in {@link Metrics} under its command word.
+ */
+public class CommandRegistry {
+    private final Map<String, CommandHandler> handlers = new HashMap<>();
+    private final Set<String> queries = new HashSet<>();
+
+    /**
+     * Registers the handler for a command word.
+     *
+     * @param word    the command word (e.g. "todo")
+     * @param handler the handler to run for that word
+     * @throws IllegalArgumentException if the word already has a handler
+     */
+    public void register(String word, CommandHandler handler) {
+        assert word != null && !word.isEmpty() && word.indexOf(' ') < 0 : "Command word must be a single word";
+        if (handlers.putIfAbsent(word, handler) != null) {
+            throw new IllegalArgumentException("Command already registered: " + word);
+        }
+    }
+
+    /**
+     * Registers the handler for a command word whose command never changes anything.
+     *
+     * @param word    the command word (e.g. "list")
+     * @param handler the handler to run for that word
+     * @throws IllegalArgumentException if the word already has a handler
+     */
+    public void registerQuery(String word, CommandHandler handler) {
+        register(word, handler);
+        queries.add(word);
+    }
+
+    /**
+     * Returns whether the input is a command registered with {@link #registerQuery}.
+     *
+     * @param input the full user command
+     * @return true if the command only reads the task list
+     */
+    public boolean isQuery(String input) {
+        return queries.contains(Parser.getCommandWord(input.trim()));
+    }
+
+    /**
+     * Runs the handler registered for the command word of the input.
+     *
+     * @param input the full user command
+     * @return the handler's response
+     * @throws TommyException if the command word is unknown or the handler fails
+     */
+    public String execute(String input) throws TommyException {
+        String trimmed = input.trim();
+        String word = Parser.getCommandWord(trimmed);
+        CommandHandler handler = handlers.get(word);
+        if (handler == null) {
+            throw new TommyException("I'm sorry, but I don't know what that means :-(");
+        }
+        long start = System.nanoTime();
+        try {
+            return handler.handle(Parser.getArguments(trimmed));
+        } finally {
+            Metrics.get().recordCommand(word, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns whether a handler is registered for the command word.
+     *
+     * @param word the command word
+     * @return true if the word is registered
+     */
+    public boolean contains(String word) {
+        return handlers.containsKey(word);
+    }
+
+    /**
+     * Returns the number of registered commands.
+     *
+     * @return number of command words
+     */
+    public int size() {
+        return handlers.size();
+    }
+}
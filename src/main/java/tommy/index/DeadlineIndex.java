@@ -0,0 +1,146 @@
+package tommy.index;
+
+import tommy.task.Deadline;
+import tommy.task.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Date-ordered index over the deadlines that are not done yet.
+ * Deadlines due on the same day keep their task list order. Done deadlines
+ * are dropped from the index when marked and added back when unmarked, so
+ * range queries never have to skip over them.
+ */
+public class DeadlineIndex {
+    private static final Comparator<Entry> ORDER =
+            Comparator.<Entry>comparingLong(e -> e.epochDay).thenComparingLong(e -> e.seq);
+
+    private final Map<Task, Entry> entries = new IdentityHashMap<>();
+    private final TreeSet<Entry> pending = new TreeSet<>(ORDER);
+
+    /**
+     * Indexes a task that was added to the task list.
+     * Tasks other than deadlines are ignored.
+     *
+     * @param task the added task, which must have an ID
+     */
+    public void add(Task task) {
+        if (!(task instanceof Deadline)) {
+            return;
+        }
+        Entry entry = new Entry((Deadline) task, task.getId());
+        entries.put(task, entry);
+        if (!task.getDone()) {
+            pending.add(entry);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task the removed task
+     */
+    public void remove(Task task) {
+        Entry entry = entries.remove(task);
+        if (entry != null) {
+            pending.remove(entry);
+        }
+    }
+
+    /**
+     * Brings the index in line with the task's done status after it was marked or unmarked.
+     *
+     * @param task the task whose status may have changed
+     */
+    public void update(Task task) {
+        Entry entry = entries.get(task);
+        if (entry == null) {
+            return;
+        }
+        if (task.getDone()) {
+            pending.remove(entry);
+        } else {
+            pending.add(entry);
+        }
+    }
+
+    /**
+     * Returns undone deadlines due strictly before the given date, earliest first.
+     *
+     * @param date exclusive upper bound
+     * @return matching deadlines
+     */
+    public List<Deadline> dueBefore(LocalDate date) {
+        return collect(pending.headSet(lowerBound(date), false), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns undone deadlines due between the two dates (both inclusive), earliest first.
+     *
+     * @param from inclusive lower bound
+     * @param to   inclusive upper bound
+     * @return matching deadlines (empty if {@code from} is after {@code to})
+     */
+    public List<Deadline> dueBetween(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return new ArrayList<>();
+        }
+        return collect(pending.subSet(lowerBound(from), true, upperBound(to), true), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the first {@code limit} undone deadlines due on or after the given date.
+     *
+     * @param today first date to include
+     * @param limit maximum number of deadlines to return
+     * @return matching deadlines, earliest first
+     */
+    public List<Deadline> upcoming(LocalDate today, int limit) {
+        return collect(pending.tailSet(lowerBound(today), true), limit);
+    }
+
+    private static List<Deadline> collect(NavigableSet<Entry> range, int limit) {
+        List<Deadline> result = new ArrayList<>();
+        for (Entry entry : range) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(entry.deadline);
+        }
+        return result;
+    }
+
+    private static Entry lowerBound(LocalDate date) {
+        return new Entry(null, date.toEpochDay(), Long.MIN_VALUE);
+    }
+
+    private static Entry upperBound(LocalDate date) {
+        return new Entry(null, date.toEpochDay(), Long.MAX_VALUE);
+    }
+
+    /**
+     * A deadline with its sort key: due date, then insertion order.
+     */
+    private static final class Entry {
+        private final Deadline deadline;
+        private final long epochDay;
+        private final long seq;
+
+        Entry(Deadline deadline, long seq) {
+            this(deadline, deadline.getByDay(), seq);
+        }
+
+        Entry(Deadline deadline, long epochDay, long seq) {
+            this.deadline = deadline;
+            this.epochDay = epochDay;
+            this.seq = seq;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package tommy.index;
+
+import tommy.task.Event;
+import tommy.task.Task;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interval index over events whose start and end could be parsed.
+ * Events with free-form times (such as "Mon 2pm") are not indexed.
+ */
+public class EventIndex {
+    private final Map<Task, Long> seqs = new IdentityHashMap<>();
+    private final IntervalTree<Event> tree = new IntervalTree<>();
+
+    /**
+     * Indexes a task that was added to the task list.
+     * Tasks other than events with parsed times are ignored.
+     *
+     * @param task the added task, which must have an ID
+     */
+    public void add(Task task) {
+        if (!(task instanceof Event) || !((Event) task).hasTimes()) {
+            return;
+        }
+        Event event = (Event) task;
+        long seq = task.getId();
+        seqs.put(task, seq);
+        tree.insert(event.getStartSecond(), event.getEndSecond(), seq, event);
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task the removed task
+     */
+    public void remove(Task task) {
+        Long seq = seqs.remove(task);
+        if (seq != null) {
+            tree.delete(((Event) task).getStartSecond(), seq);
+        }
+    }
+
+    /**
+     * Returns the indexed events, other than the given one, whose time range
+     * overlaps the given event's, ordered by start time.
+     *
+     * @param event the event to check
+     * @return overlapping events (empty if none, or if the event has no parsed times)
+     */
+    public List<Event> overlapping(Event event) {
+        List<Event> result = new ArrayList<>();
+        if (!event.hasTimes()) {
+            return result;
+        }
+        tree.overlapping(event.getStartSecond(), event.getEndSecond(), result);
+        result.removeIf(other -> other == event);
+        return result;
+    }
+}
@@ -0,0 +1,201 @@
+package tommy.index;
+
+import java.util.List;
+
+/**
+ * Balanced (AVL) interval tree over half-open intervals [start, end).
+ * Nodes are ordered by start, then by a caller-supplied sequence number that
+ * makes keys unique, and each node tracks the largest end in its subtree so
+ * that overlap queries can skip subtrees that end too early.
+ *
+ * @param <T> type of the value attached to each interval
+ */
+public class IntervalTree<T> {
+    private Node<T> root;
+    private int size;
+
+    /**
+     * Inserts an interval. The (start, seq) pair must not already be in the tree.
+     *
+     * @param start inclusive start
+     * @param end   exclusive end (not before start)
+     * @param seq   tie-breaker that makes the key unique
+     * @param value value attached to the interval
+     */
+    public void insert(long start, long end, long seq, T value) {
+        assert start <= end : "Interval must not end before it starts";
+        root = insert(root, new Node<>(start, end, seq, value));
+        size++;
+    }
+
+    /**
+     * Removes the interval with the given key, if present.
+     *
+     * @param start start of the interval
+     * @param seq   sequence number the interval was inserted with
+     */
+    public void delete(long start, long seq) {
+        root = delete(root, start, seq);
+    }
+
+    /**
+     * Adds to {@code out} the value of every interval overlapping [start, end),
+     * ordered by interval start.
+     *
+     * @param start inclusive start of the query interval
+     * @param end   exclusive end of the query interval
+     * @param out   list that receives the overlapping values
+     */
+    public void overlapping(long start, long end, List<T> out) {
+        overlapping(root, start, end, out);
+    }
+
+    /**
+     * Returns the number of intervals in the tree.
+     *
+     * @return number of intervals
+     */
+    public int size() {
+        return size;
+    }
+
+    private static <T> void overlapping(Node<T> node, long start, long end, List<T> out) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        overlapping(node.left, start, end, out);
+        if (node.start >= end) {
+            // Everything to the right starts even later.
+            return;
+        }
+        if (node.end > start) {
+            out.add(node.value);
+        }
+        overlapping(node.right, start, end, out);
+    }
+
+    private static int compare(long startA, long seqA, long startB, long seqB) {
+        int byStart = Long.compare(startA, startB);
+        return byStart != 0 ? byStart : Long.compare(seqA, seqB);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.seq, node.start, node.seq) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    private Node<T> delete(Node<T> node, long start, long seq) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, seq, node.start, node.seq);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, seq);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, seq);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<T> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.right = removeMin(node.right);
+            successor.left = node.left;
+            successor.right = node.right;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private Node<T> removeMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private Node<T> rebalance(Node<T> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static <T> void update(Node<T> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = node.end;
+        if (node.left != null) {
+            node.maxEnd = Math.max(node.maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            node.maxEnd = Math.max(node.maxEnd, node.right.maxEnd);
+        }
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<T> {
+        private final long start;
+        private final long end;
+        private final long seq;
+        private final T value;
+        private long maxEnd;
+        private int height;
+        private Node<T> left;
+        private Node<T> right;
+
+        Node(long start, long end, long seq, T value) {
+            this.start = start;
+            this.end = end;
+            this.seq = seq;
+            this.value = value;
+            this.maxEnd = end;
+            this.height = 1;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package tommy.index;
+
+import tommy.task.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntFunction;
+
+/**
+ * Token-to-postings index over task descriptions.
+ *
+ * <p>Descriptions are lowercased and split on whitespace into tokens. Each token
+ * maps to the IDs of the tasks containing it, kept in a sorted int array, and
+ * tasks are looked up by ID only for the results. ID order is also the order
+ * in the task list. A query word matches a task when it is a
+ * substring of one of the task's tokens, which is the same as being a substring
+ * of the whole description. Tokens containing a word are found through a
+ * trigram index over the vocabulary, so a search only visits matching tokens.
+ *
+ * <p>{@link #rank} offers a relevance-ordered alternative: every query word is
+ * matched against the vocabulary with a small edit-distance tolerance, matches
+ * are scored with BM25, and only the best k tasks are kept in a bounded heap.
+ * Near misses are found without scanning the vocabulary either: a token within
+ * k edits of the word still contains one of k + 1 pieces of the word unchanged,
+ * so only tokens holding a piece (or, for pieces too short for a trigram, tokens
+ * of about the word's length) are compared with it.
+ *
+ * <p>Queries stop with a {@link CancellationException} if the calling thread
+ * is interrupted while they scan the vocabulary.
+ */
+public class InvertedIndex {
+    private static final int GRAM = 3;
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+    private static final double SUBSTRING_WEIGHT = 0.7;
+
+    private final IntFunction<Task> tasksById;
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Set<String>> grams = new HashMap<>();
+    private final Map<Integer, Set<String>> tokensByLength = new HashMap<>();
+    private int taskCount;
+    private long totalTokens;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param tasksById finds an indexed task by its ID
+     */
+    public InvertedIndex(IntFunction<Task> tasksById) {
+        this.tasksById = tasksById;
+    }
+
+    /**
+     * Indexes a task that was added to the task list.
+     *
+     * @param task the task to index, which must have an ID and must not be indexed already
+     */
+    public void add(Task task) {
+        assert task.getId() > 0 : "Indexed tasks need an ID";
+        taskCount++;
+        totalTokens += countTokens(task.getDescription());
+        for (String token : tokenize(task.getDescription())) {
+            Postings list = postings.get(token);
+            if (list == null) {
+                list = new Postings();
+                postings.put(token, list);
+                addToVocabulary(token);
+            }
+            list.add(task.getId());
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task the task to remove, which must be indexed
+     */
+    public void remove(Task task) {
+        taskCount--;
+        totalTokens -= countTokens(task.getDescription());
+        for (String token : tokenize(task.getDescription())) {
+            Postings list = postings.get(token);
+            list.remove(task.getId());
+            if (list.size == 0) {
+                postings.remove(token);
+                removeFromVocabulary(token);
+            }
+        }
+    }
+
+    /**
+     * Returns the tasks whose descriptions contain every word of the keyword
+     * phrase (case-insensitive), in task list order.
+     *
+     * @param keyword search phrase (multiple words separated by whitespace)
+     * @return list of matching tasks (empty list if no matches)
+     */
+    public List<Task> find(String keyword) {
+        String[] words = keyword.toLowerCase().trim().split("\\s+");
+        int[] result = null;
+        for (String word : words) {
+            int[] matches = match(word);
+            result = (result == null) ? matches : intersect(result, matches);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        List<Task> tasks = new ArrayList<>(result.length);
+        for (int id : result) {
+            tasks.add(tasksById.apply(id));
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns up to {@code limit} tasks that best match the keyword phrase,
+     * most relevant first. A task matches if any query word equals, is contained
+     * in, or is within a small edit distance of one of its tokens. Ties keep
+     * task list order.
+     *
+     * @param keyword search phrase (multiple words separated by whitespace)
+     * @param limit   maximum number of tasks to return (must be positive)
+     * @return the best matching tasks, most relevant first
+     */
+    public List<Task> rank(String keyword, int limit) {
+        assert limit > 0 : "Result limit must be positive";
+        Map<Task, Double> scores = new IdentityHashMap<>();
+        double averageLength = taskCount == 0 ? 1 : (double) totalTokens / taskCount;
+        for (String word : keyword.toLowerCase().trim().split("\\s+")) {
+            int maxEdits = word.length() < 3 ? 0 : word.length() < 8 ? 1 : 2;
+            // Best similarity of this word to any token of each matching task, by task ID.
+            Map<Integer, Double> weights = new HashMap<>();
+            for (String token : similarTokens(word, maxEdits)) {
+                checkCancelled();
+                double weight = similarity(word, token, maxEdits);
+                if (weight == 0) {
+                    continue;
+                }
+                Postings list = postings.get(token);
+                for (int i = 0; i < list.size; i++) {
+                    weights.merge(list.ids[i], weight, Math::max);
+                }
+            }
+            double idf = Math.log(1 + (taskCount - weights.size() + 0.5) / (weights.size() + 0.5));
+            for (Map.Entry<Integer, Double> entry : weights.entrySet()) {
+                Task task = tasksById.apply(entry.getKey());
+                double lengthRatio = countTokens(task.getDescription()) / averageLength;
+                double tf = (BM25_K1 + 1) / (1 + BM25_K1 * (1 - BM25_B + BM25_B * lengthRatio));
+                scores.merge(task, entry.getValue() * idf * tf, Double::sum);
+            }
+        }
+
+        // Min-heap of the best tasks so far: lowest score (then latest in list) at the head.
+        PriorityQueue<Map.Entry<Task, Double>> best = new PriorityQueue<>((a, b) -> {
+            int byScore = Double.compare(a.getValue(), b.getValue());
+            return byScore != 0 ? byScore : Integer.compare(b.getKey().getId(), a.getKey().getId());
+        });
+        for (Map.Entry<Task, Double> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        Task[] ranked = new Task[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = best.poll().getKey();
+        }
+        return List.of(ranked);
+    }
+
+    /**
+     * Splits a description into the distinct lowercase tokens used as index keys.
+     */
+    private static Set<String> tokenize(String description) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : description.toLowerCase().trim().split("\\s+")) {
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the sorted IDs of every indexed task having a token that contains the given word.
+     */
+    private int[] match(String word) {
+        Postings only = null;
+        BitSet ids = null;
+        for (String token : candidateTokens(word)) {
+            checkCancelled();
+            if (!token.contains(word)) {
+                continue;
+            }
+            Postings list = postings.get(token);
+            if (only == null && ids == null) {
+                only = list;
+                continue;
+            }
+            if (ids == null) {
+                ids = new BitSet();
+                only.addTo(ids);
+            }
+            list.addTo(ids);
+        }
+        if (ids != null) {
+            return ids.stream().toArray();
+        }
+        return only == null ? new int[0] : Arrays.copyOf(only.ids, only.size);
+    }
+
+    /**
+     * Returns a superset of the tokens that contain the given word. Words of at
+     * least three characters are narrowed down by their rarest trigram; shorter
+     * words fall back to the whole vocabulary.
+     */
+    private Set<String> candidateTokens(String word) {
+        if (word.length() < GRAM) {
+            return postings.keySet();
+        }
+        Set<String> smallest = null;
+        for (int i = 0; i + GRAM <= word.length(); i++) {
+            Set<String> tokens = grams.get(word.substring(i, i + GRAM));
+            if (tokens == null) {
+                return Set.of();
+            }
+            if (smallest == null || tokens.size() < smallest.size()) {
+                smallest = tokens;
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Returns a superset of the tokens that contain the given word or are within
+     * {@code maxEdits} edits of it. The edits can touch at most {@code maxEdits}
+     * of {@code maxEdits + 1} pieces of the word, so a near miss contains some
+     * piece unchanged; pieces too short for a trigram fall back to the tokens
+     * whose length is close enough to the word's.
+     */
+    private Set<String> similarTokens(String word, int maxEdits) {
+        Set<String> contained = candidateTokens(word);
+        if (maxEdits == 0) {
+            return contained;
+        }
+        Set<String> tokens = new HashSet<>(contained);
+        int pieceLength = word.length() / (maxEdits + 1);
+        if (pieceLength < GRAM) {
+            for (int length = word.length() - maxEdits; length <= word.length() + maxEdits; length++) {
+                tokens.addAll(tokensByLength.getOrDefault(length, Set.of()));
+            }
+            return tokens;
+        }
+        for (int piece = 0; piece <= maxEdits; piece++) {
+            int end = piece == maxEdits ? word.length() : (piece + 1) * pieceLength;
+            tokens.addAll(candidateTokens(word.substring(piece * pieceLength, end)));
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns how well a query word matches a token: 1 for an exact match,
+     * less for a substring or a near miss, and 0 for no match.
+     */
+    private static double similarity(String word, String token, int maxEdits) {
+        if (token.equals(word)) {
+            return 1;
+        }
+        if (token.contains(word)) {
+            return SUBSTRING_WEIGHT;
+        }
+        if (maxEdits == 0 || Math.abs(token.length() - word.length()) > maxEdits) {
+            return 0;
+        }
+        int distance = editDistance(word, token, maxEdits);
+        return distance > maxEdits ? 0 : 1 - (double) distance / (word.length() + 1);
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings, giving up early
+     * (returning {@code maxEdits + 1}) once it must exceed {@code maxEdits}.
+     */
+    private static int editDistance(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Counts whitespace-separated tokens without allocating.
+     */
+    private static int countTokens(String description) {
+        int count = 0;
+        boolean isInToken = false;
+        for (int i = 0; i < description.length(); i++) {
+            boolean isSpace = Character.isWhitespace(description.charAt(i));
+            if (!isSpace && !isInToken) {
+                count++;
+            }
+            isInToken = !isSpace;
+        }
+        return count;
+    }
+
+    private static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException();
+        }
+    }
+
+    /**
+     * Intersects two sorted ID arrays, looking up each ID of the smaller one in the larger one.
+     */
+    private static int[] intersect(int[] a, int[] b) {
+        int[] small = a.length <= b.length ? a : b;
+        int[] large = small == a ? b : a;
+        int[] result = new int[small.length];
+        int count = 0;
+        int from = 0;
+        for (int id : small) {
+            int at = Arrays.binarySearch(large, from, large.length, id);
+            if (at >= 0) {
+                result[count++] = id;
+                from = at + 1;
+            } else {
+                from = -at - 1;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void addToVocabulary(String token) {
+        tokensByLength.computeIfAbsent(token.length(), k -> new HashSet<>()).add(token);
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            grams.computeIfAbsent(token.substring(i, i + GRAM), k -> new HashSet<>()).add(token);
+        }
+    }
+
+    private void removeFromVocabulary(String token) {
+        Set<String> sameLength = tokensByLength.get(token.length());
+        sameLength.remove(token);
+        if (sameLength.isEmpty()) {
+            tokensByLength.remove(token.length());
+        }
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            String gram = token.substring(i, i + GRAM);
+            Set<String> tokens = grams.get(gram);
+            if (tokens != null) {
+                tokens.remove(token);
+                if (tokens.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * IDs of the tasks containing one token, in ascending order. Tasks are
+     * mostly added with increasing IDs, so adding one is usually an append.
+     */
+    private static final class Postings {
+        int[] ids = new int[2];
+        int size;
+
+        void add(int id) {
+            int at = size == 0 || ids[size - 1] < id ? size : -Arrays.binarySearch(ids, 0, size, id) - 1;
+            assert at >= 0 : "Task should not be indexed twice";
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            assert at >= 0 : "Only indexed tasks are removed";
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+        }
+
+        void addTo(BitSet set) {
+            for (int i = 0; i < size; i++) {
+                set.set(ids[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package tommy.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.ToLongFunction;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide counters and latency histograms: command latency per command
+ * word, search, load and save latency, and what the storage layer writes.
+ *
+ * <p>The figures are shown by the {@code stats} command and, once
+ * {@link #registerMBean()} has been called, published over JMX as
+ * {@value #OBJECT_NAME}. Recording is lock-free, so instrumented code pays
+ * a clock read and a few atomic increments.
+ */
+public final class Metrics implements MetricsMXBean {
+    /** JMX name the metrics are published under. */
+    public static final String OBJECT_NAME = "tommy:type=Metrics";
+
+    private static final Metrics INSTANCE = new Metrics();
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, LatencyHistogram> commands = new ConcurrentHashMap<>();
+    private final LatencyHistogram search = new LatencyHistogram();
+    private final LatencyHistogram load = new LatencyHistogram();
+    private final LatencyHistogram save = new LatencyHistogram();
+    private final LongAdder recordsWritten = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder journalFlushes = new LongAdder();
+    private final LongAdder fsyncs = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile IntSupplier listSize = () -> 0;
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the metrics of this process.
+     *
+     * @return the shared instance
+     */
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Publishes the metrics over JMX. Calling it again has no effect.
+     */
+    public void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Already published.
+        } catch (JMException e) {
+            System.err.println("Could not publish metrics over JMX: " + e.getMessage());
+            recordError();
+        }
+    }
+
+    /* ================= RECORDING ================= */
+
+    /**
+     * Records how long a command took.
+     *
+     * @param word  the command word, or a fixed name for unknown commands
+     * @param nanos the time taken
+     */
+    public void recordCommand(String word, long nanos) {
+        commands.computeIfAbsent(word, w -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Records how long a search of the task index took.
+     *
+     * @param nanos the time taken
+     */
+    public void recordSearch(long nanos) {
+        search.record(nanos);
+    }
+
+    /**
+     * Records how long loading a data file (and replaying its journal) took.
+     *
+     * @param nanos the time taken
+     */
+    public void recordLoad(long nanos) {
+        load.record(nanos);
+    }
+
+    /**
+     * Records a full write of a data file, which is forced to disk once.
+     *
+     * @param nanos   the time taken
+     * @param records number of tasks written
+     * @param bytes   size of the file written
+     */
+    public void recordSave(long nanos, int records, long bytes) {
+        save.record(nanos);
+        recordsWritten.add(records);
+        bytesWritten.add(bytes);
+        fsyncs.increment();
+    }
+
+    /**
+     * Records a journal record appended to the journal's buffer.
+     *
+     * @param bytes size of the record, including its line break
+     */
+    public void recordJournalRecord(long bytes) {
+        recordsWritten.increment();
+        bytesWritten.add(bytes);
+    }
+
+    /**
+     * Records that buffered journal records were handed to the operating system.
+     */
+    public void recordJournalFlush() {
+        journalFlushes.increment();
+    }
+
+    /**
+     * Records an error that nobody was waiting for, such as a failed background
+     * compaction, and that was therefore only logged to standard error.
+     */
+    public void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Sets where the size of the list in use is read from.
+     *
+     * @param listSize returns the current list size
+     */
+    public synchronized void setListSize(IntSupplier listSize) {
+        this.listSize = listSize;
+    }
+
+    /**
+     * Stops reading the list size from {@code listSize}, if it is still the one
+     * set, so that the metrics no longer hold on to the list behind it.
+     *
+     * @param listSize a supplier passed to {@link #setListSize}
+     */
+    public synchronized void clearListSize(IntSupplier listSize) {
+        if (this.listSize == listSize) {
+            this.listSize = () -> 0;
+        }
+    }
+
+    /* ================= REPORTING ================= */
+
+    /**
+     * Returns a human-readable summary of all metrics.
+     *
+     * @return the summary, one figure or command per line
+     */
+    public String report() {
+        return report(getListSize());
+    }
+
+    /**
+     * Returns a human-readable summary of all metrics, for a caller whose list has the given size.
+     *
+     * @param listSize size of the caller's list, shown instead of the one set by {@link #setListSize}
+     * @return the summary, one figure or command per line
+     */
+    public String report(int listSize) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Tasks in list: ").append(listSize).append('\n');
+        sb.append(String.format("%-12s %8s %9s %9s %9s %9s%n", "Latency (ms)", "count", "mean", "p50", "p99", "max"));
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(commands).entrySet()) {
+            appendRow(sb, entry.getKey(), entry.getValue());
+        }
+        appendRow(sb, "(search)", search);
+        appendRow(sb, "(load)", load);
+        appendRow(sb, "(save)", save);
+        sb.append("Written: ").append(recordsWritten.sum()).append(" records, ")
+                .append(formatBytes(bytesWritten.sum())).append(", ")
+                .append(journalFlushes.sum()).append(" journal flushes, ")
+                .append(fsyncs.sum()).append(" fsyncs");
+        if (errors.sum() > 0) {
+            sb.append("\nErrors: ").append(errors.sum()).append(" (details on standard error)");
+        }
+        return sb.toString();
+    }
+
+    private static void appendRow(StringBuilder sb, String name, LatencyHistogram histogram) {
+        sb.append(String.format("%-12s %8d %9.3f %9.3f %9.3f %9.3f%n", name, histogram.getCount(),
+                toMillis(histogram.getMean()), toMillis(histogram.getPercentile(50)),
+                toMillis(histogram.getPercentile(99)), toMillis(histogram.getMax())));
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    private Map<String, Double> commandMillis(ToLongFunction<LatencyHistogram> statistic) {
+        Map<String, Double> result = new TreeMap<>();
+        commands.forEach((word, histogram) -> result.put(word, toMillis(statistic.applyAsLong(histogram))));
+        return result;
+    }
+
+    @Override
+    public int getListSize() {
+        return listSize.getAsInt();
+    }
+
+    @Override
+    public Map<String, Long> getCommandCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        commands.forEach((word, histogram) -> result.put(word, histogram.getCount()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getCommandMeanMillis() {
+        return commandMillis(LatencyHistogram::getMean);
+    }
+
+    @Override
+    public Map<String, Double> getCommandP50Millis() {
+        return commandMillis(histogram -> histogram.getPercentile(50));
+    }
+
+    @Override
+    public Map<String, Double> getCommandP99Millis() {
+        return commandMillis(histogram -> histogram.getPercentile(99));
+    }
+
+    @Override
+    public Map<String, Double> getCommandMaxMillis() {
+        return commandMillis(LatencyHistogram::getMax);
+    }
+
+    @Override
+    public long getSearchCount() {
+        return search.getCount();
+    }
+
+    @Override
+    public double getSearchP99Millis() {
+        return toMillis(search.getPercentile(99));
+    }
+
+    @Override
+    public long getLoadCount() {
+        return load.getCount();
+    }
+
+    @Override
+    public double getLoadP99Millis() {
+        return toMillis(load.getPercentile(99));
+    }
+
+    @Override
+    public long getSaveCount() {
+        return save.getCount();
+    }
+
+    @Override
+    public double getSaveP99Millis() {
+        return toMillis(save.getPercentile(99));
+    }
+
+    @Override
+    public long getRecordsWritten() {
+        return recordsWritten.sum();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public long getJournalFlushCount() {
+        return journalFlushes.sum();
+    }
+
+    @Override
+    public long getFsyncCount() {
+        return fsyncs.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+}
@@ -0,0 +1,60 @@
+package tommy.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link Metrics}, registered as {@value Metrics#OBJECT_NAME}.
+ * Latencies are in milliseconds and maps are keyed by command word.
+ */
+public interface MetricsMXBean {
+    /** Returns the number of tasks in the list in use. */
+    int getListSize();
+
+    /** Returns how many times each command has run. */
+    Map<String, Long> getCommandCounts();
+
+    /** Returns the mean latency of each command. */
+    Map<String, Double> getCommandMeanMillis();
+
+    /** Returns the median latency of each command. */
+    Map<String, Double> getCommandP50Millis();
+
+    /** Returns the 99th percentile latency of each command. */
+    Map<String, Double> getCommandP99Millis();
+
+    /** Returns the longest latency of each command. */
+    Map<String, Double> getCommandMaxMillis();
+
+    /** Returns the number of searches of the task index. */
+    long getSearchCount();
+
+    /** Returns the 99th percentile latency of searches. */
+    double getSearchP99Millis();
+
+    /** Returns the number of data files loaded. */
+    long getLoadCount();
+
+    /** Returns the 99th percentile time to load a data file. */
+    double getLoadP99Millis();
+
+    /** Returns the number of full data file writes (saves and compactions). */
+    long getSaveCount();
+
+    /** Returns the 99th percentile time of a full data file write. */
+    double getSaveP99Millis();
+
+    /** Returns the number of journal records and data file lines written. */
+    long getRecordsWritten();
+
+    /** Returns the number of bytes written to journals and data files. */
+    long getBytesWritten();
+
+    /** Returns the number of journal writes handed to the operating system. */
+    long getJournalFlushCount();
+
+    /** Returns the number of times a file was forced to disk. */
+    long getFsyncCount();
+
+    /** Returns the number of errors that were only logged to standard error. */
+    long getErrorCount();
+}
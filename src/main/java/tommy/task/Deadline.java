@@ -5,9 +5,11 @@ import java.time.format.DateTimeFormatter;
 
 /**
  * Represents a task that needs to be completed by a specific date.
+ * The date is kept as an epoch day rather than a {@link LocalDate} object, in
+ * an int, so only dates for which {@link #isSupported} holds can be used.
  */
 public class Deadline extends Task {
-    private LocalDate by;
+    private final int byDay;
     private static final DateTimeFormatter OUTPUT_FORMAT =
             DateTimeFormatter.ofPattern("MMM dd yyyy");
 
@@ -15,11 +17,25 @@ public class Deadline extends Task {
      * Constructs a new Deadline task with the given description and due date.
      *
      * @param description the description of the task
-     * @param by          the due date of the task
+     * @param by          the due date of the task, which must be {@link #isSupported supported}
      */
     public Deadline(String description, LocalDate by) {
         super(description);
-        this.by = by;
+        assert isSupported(by) : "Due date should be in the supported range";
+        this.byDay = Math.toIntExact(by.toEpochDay());
+    }
+
+    /**
+     * Returns whether a date can be the due date of a deadline: its epoch day
+     * must fit in an int, and {@link Integer#MAX_VALUE} is left out so that it
+     * can stand for "no date" in day columns.
+     *
+     * @param date the date to check
+     * @return true if the date is in range
+     */
+    public static boolean isSupported(LocalDate date) {
+        long day = date.toEpochDay();
+        return day >= Integer.MIN_VALUE && day < Integer.MAX_VALUE;
     }
 
     /**
@@ -28,19 +44,28 @@ public class Deadline extends Task {
      * @return the LocalDate by which the task must be completed
      */
     public LocalDate getBy() {
-        return by;
+        return LocalDate.ofEpochDay(byDay);
+    }
+
+    /**
+     * Returns the due date of this deadline task as a day count, without creating a date object.
+     *
+     * @return the due date's epoch day, as returned by {@link LocalDate#toEpochDay()}
+     */
+    public int getByDay() {
+        return byDay;
     }
 
     @Override
     public String toString() {
         return "[D]" + super.toString()
-                + " (by: " + by.format(OUTPUT_FORMAT) + ")";
+                + " (by: " + getBy().format(OUTPUT_FORMAT) + ")";
     }
 
     @Override
     public String toFileString() {
         return "D | " + (getDone() ? "1" : "0")
                 + " | " + getDescription()
-                + " | " + by;
+                + " | " + getBy();
     }
 }
@@ -1,11 +1,32 @@
 package tommy.task;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
 /**
  * Represents a task that occurs within a specific time range (start to end).
+ * The start and end are kept as entered. When they are in a recognised format
+ * (yyyy-MM-dd, yyyy-MM-dd HH:mm, or HH:mm for an end on the start's day), they
+ * are also parsed into a time interval that can be checked for overlaps.
+ * The interval is kept as two epoch seconds rather than date-time objects, and
+ * the start and end text is shared with other events through a {@link StringPool}.
  */
 public class Event extends Task {
-    private String from;
-    private String to;
+    private static final DateTimeFormatter DATE_TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    /** Value of {@link #start} and {@link #end} when they could not be parsed. */
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final String from;
+    private final String to;
+    private final long start;
+    private final long end;
 
     /**
      * Constructs a new Event task with description and time period.
@@ -16,8 +37,17 @@ public class Event extends Task {
      */
     public Event(String description, String from, String to) {
         super(description);
-        this.from = from;
-        this.to = to;
+        this.from = StringPool.dedup(from);
+        this.to = StringPool.dedup(to);
+        LocalDateTime parsedStart = parseStart(from);
+        LocalDateTime parsedEnd = parsedStart == null ? null : parseEnd(to, parsedStart.toLocalDate());
+        if (parsedEnd == null || parsedEnd.isBefore(parsedStart)) {
+            this.start = NO_TIME;
+            this.end = NO_TIME;
+        } else {
+            this.start = parsedStart.toEpochSecond(ZoneOffset.UTC);
+            this.end = parsedEnd.toEpochSecond(ZoneOffset.UTC);
+        }
     }
 
     /**
@@ -38,6 +68,54 @@ public class Event extends Task {
         return this.to;
     }
 
+    /**
+     * Returns whether the start and end could be parsed into a time interval.
+     *
+     * @return true if {@link #getStart()} and {@link #getEnd()} are available
+     */
+    public boolean hasTimes() {
+        return start != NO_TIME;
+    }
+
+    /**
+     * Returns the parsed start of the event (inclusive).
+     *
+     * @return the start, or null if it could not be parsed
+     */
+    public LocalDateTime getStart() {
+        return hasTimes() ? LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * Returns the parsed end of the event (exclusive).
+     * An end given as a date alone means the end of that day.
+     *
+     * @return the end, or null if it could not be parsed
+     */
+    public LocalDateTime getEnd() {
+        return hasTimes() ? LocalDateTime.ofEpochSecond(end, 0, ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * Returns the parsed start of the event as seconds since 1970-01-01T00:00, without creating a date-time object.
+     * Only meaningful if {@link #hasTimes()}.
+     *
+     * @return the start's epoch second
+     */
+    public long getStartSecond() {
+        return start;
+    }
+
+    /**
+     * Returns the parsed end of the event as seconds since 1970-01-01T00:00, without creating a date-time object.
+     * Only meaningful if {@link #hasTimes()}.
+     *
+     * @return the end's epoch second
+     */
+    public long getEndSecond() {
+        return end;
+    }
+
     @Override
     public String toString() {
         return "[E]" + super.toString() + " (from: " + getFrom() + " to: " + getTo() + ")";
@@ -49,4 +127,118 @@ public class Event extends Task {
                 + " | " + from + " | " + to;
     }
 
+    private static LocalDateTime parseStart(String text) {
+        LocalDateTime quick = parseFixedWidth(text.trim(), null, false);
+        if (quick != null) {
+            return quick;
+        }
+        try {
+            return parseDateTime(text.trim());
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDate.parse(text.trim()).atStartOfDay();
+            } catch (DateTimeParseException e2) {
+                return null;
+            }
+        }
+    }
+
+    private static LocalDateTime parseEnd(String text, LocalDate startDate) {
+        String trimmed = text.trim();
+        LocalDateTime quick = parseFixedWidth(trimmed, startDate, true);
+        if (quick != null) {
+            return quick;
+        }
+        try {
+            return parseDateTime(trimmed);
+        } catch (DateTimeParseException e) {
+            // Fall through to the date-only and time-only forms.
+        }
+        try {
+            return LocalDate.parse(trimmed).plusDays(1).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            // Fall through to the time-only form.
+        }
+        try {
+            return startDate.atTime(LocalTime.parse(trimmed));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static LocalDateTime parseDateTime(String text) {
+        if (text.indexOf('T') >= 0) {
+            return LocalDateTime.parse(text);
+        }
+        return LocalDateTime.parse(text, DATE_TIME_FORMAT);
+    }
+
+    /**
+     * Reads "yyyy-MM-dd HH:mm", "yyyy-MM-dd" and (for an end) "HH:mm" digit by digit.
+     * These are the forms saved data nearly always has, and the formatters would
+     * otherwise reject an end time twice, by exception, before trying the time-only form.
+     * Returns null when the text is in another form or out of range, so that the
+     * formatters decide.
+     */
+    private static LocalDateTime parseFixedWidth(String text, LocalDate startDate, boolean isEnd) {
+        try {
+            switch (text.length()) {
+                case 16:
+                    if (text.charAt(10) != ' ' || !isDate(text, 0) || !isTime(text, 11)) {
+                        return null;
+                    }
+                    return LocalDateTime.of(toDate(text, 0), toTime(text, 11));
+                case 10:
+                    if (!isDate(text, 0)) {
+                        return null;
+                    }
+                    LocalDate date = toDate(text, 0);
+                    return (isEnd ? date.plusDays(1) : date).atStartOfDay();
+                case 5:
+                    if (!isEnd || !isTime(text, 0)) {
+                        return null;
+                    }
+                    return startDate.atTime(toTime(text, 0));
+                default:
+                    return null;
+            }
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isDate(String text, int at) {
+        return text.charAt(at + 4) == '-' && text.charAt(at + 7) == '-'
+                && isDigits(text, at, at + 4) && isDigits(text, at + 5, at + 7) && isDigits(text, at + 8, at + 10);
+    }
+
+    private static boolean isTime(String text, int at) {
+        return text.charAt(at + 2) == ':' && isDigits(text, at, at + 2) && isDigits(text, at + 3, at + 5);
+    }
+
+    private static LocalDate toDate(String text, int at) {
+        return LocalDate.of(number(text, at, at + 4), number(text, at + 5, at + 7), number(text, at + 8, at + 10));
+    }
+
+    private static LocalTime toTime(String text, int at) {
+        return LocalTime.of(number(text, at, at + 2), number(text, at + 3, at + 5));
+    }
+
+    private static boolean isDigits(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int number(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + text.charAt(i) - '0';
+        }
+        return value;
+    }
 }
@@ -0,0 +1,44 @@
+package tommy.task;
+
+/**
+ * Small fixed-size cache that maps equal strings to one shared instance, so that
+ * descriptions and event times repeated across a large list are stored once.
+ *
+ * <p>A string's slot is picked by its hash, and a new string simply replaces
+ * whatever its slot held. The pool therefore never holds more than {@link #SIZE}
+ * strings, unique strings are soon dropped again, and strings that keep coming
+ * back stay shared. Threads that race on a slot can only cause a duplicate to be
+ * kept, so the pool needs no locking and the parallel loader can use it.
+ *
+ * <p>Start the JVM with {@code -Dtommy.dedup=false} to turn sharing off.
+ */
+final class StringPool {
+    private static final int SIZE = 1 << 14;
+    private static final int MAX_LENGTH = 64;
+    private static final boolean IS_ENABLED = Boolean.parseBoolean(System.getProperty("tommy.dedup", "true"));
+    private static final String[] SLOTS = new String[SIZE];
+
+    private StringPool() {
+    }
+
+    /**
+     * Returns a shared string equal to the given one: the instance seen last
+     * for it if it is still pooled, or else the given string, which is pooled.
+     *
+     * @param text the string to share (may be null)
+     * @return an equal string
+     */
+    static String dedup(String text) {
+        if (!IS_ENABLED || text == null || text.length() > MAX_LENGTH) {
+            return text;
+        }
+        int hash = text.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (SIZE - 1);
+        String pooled = SLOTS[slot];
+        if (text.equals(pooled)) {
+            return pooled;
+        }
+        SLOTS[slot] = text;
+        return text;
+    }
+}
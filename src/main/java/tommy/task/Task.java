@@ -3,21 +3,32 @@ package tommy.task;
  * Represents a Task in the Tommy chatbot.
  * A Task has a description and a completion status.
  * This is the superclass for Todo, Deadline, and Event.
+ *
+ * <p>Once a task is in a list it also has an ID, which is unique within that
+ * list, is saved with the task and never changes, so it keeps referring to the
+ * same task while other tasks are added or deleted.
+ *
+ * <p>Tasks are kept small so that lists of millions fit in memory: the ID and
+ * the done flag share one int, and descriptions that are already in use by
+ * another task are shared through a {@link StringPool}.
  */
 public class Task {
-    private String description;
-    private boolean isDone;
+    /** Bit of {@link #state} that is set when the task is done; the other bits hold the ID. */
+    private static final int DONE = 1 << 31;
+
+    private final String description;
+    /** Volatile so that lists shared between threads can be read without their lock. */
+    private volatile int state;
 
     public Task(String description) {
-        this.description = description;
-        this.isDone = false;
+        this.description = StringPool.dedup(description);
     }
     /**
      * Returns the status icon of the task.
      * @return "X" if done, " " if not done.
      */
     public String getStatusIcon() {
-        return (isDone ? "X" : " ");
+        return (getDone() ? "X" : " ");
     }
     /**
      * Marks the task as done.
@@ -25,14 +36,14 @@ public class Task {
      */
     public void markDone() {
 
-        this.isDone = true;
+        this.state |= DONE;
     }
     /**
      * Marks the task as not done.
      */
     public void unmarkDone() {
 
-        this.isDone = false;
+        this.state &= ~DONE;
     }
     /**
      * Returns whether the task is completed.
@@ -40,7 +51,24 @@ public class Task {
      * @return true if done, false otherwise
      */
     public boolean getDone() {
-        return isDone;
+        return (state & DONE) != 0;
+    }
+    /**
+     * Returns the ID of the task.
+     *
+     * @return the ID, or 0 if the task has not been added to a list yet
+     */
+    public int getId() {
+        return state & ~DONE;
+    }
+    /**
+     * Sets the ID of the task. Called when the task is added to a list or read from a file.
+     *
+     * @param id a positive ID
+     */
+    public void setId(int id) {
+        assert id > 0 : "Task IDs are positive";
+        this.state = (state & DONE) | id;
     }
     /**
      * Returns the description of the task.
@@ -64,7 +92,7 @@ public class Task {
      * @return a string representing the task for storage
      */
     public String toFileString() {
-        return "T | " + (isDone ? "1" : "0") + " | " + description;
+        return "T | " + (getDone() ? "1" : "0") + " | " + description;
     }
 
 }
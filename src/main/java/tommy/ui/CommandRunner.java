@@ -0,0 +1,131 @@
+package tommy.ui;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Runs commands on a worker thread so the UI thread stays free for input.
+ *
+ * <p>Commands run one at a time in submission order, and their responses are
+ * handed to the UI in the same order through the {@code deliverer} (for JavaFX,
+ * {@code Platform::runLater}). While any command is queued or running, the
+ * runner reports that it is busy, so the UI can show progress.
+ *
+ * <p>{@link #cancel()} interrupts the running command, but only if it is
+ * cancellable (a query that changes nothing); commands that change the list
+ * always run to completion.
+ */
+public class CommandRunner {
+    private final Function<String, String> commands;
+    private final Predicate<String> isCancellable;
+    private final Executor deliverer;
+    private final ExecutorService worker;
+    private final Object lock = new Object();
+    private Consumer<Boolean> busyListener = isBusy -> { };
+    private int pendingCount;
+    private Thread runningThread;
+    private boolean isRunningCancellable;
+
+    /**
+     * Creates a runner.
+     *
+     * @param commands      turns a command into its response
+     * @param isCancellable tells which commands may be interrupted
+     * @param deliverer     runs response callbacks on the UI thread
+     */
+    public CommandRunner(Function<String, String> commands, Predicate<String> isCancellable, Executor deliverer) {
+        this.commands = commands;
+        this.isCancellable = isCancellable;
+        this.deliverer = deliverer;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tommy-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the callback told, on the UI thread, when the runner becomes busy or idle.
+     *
+     * @param busyListener receives true when the first command is queued and false when the last one finishes
+     */
+    public void setBusyListener(Consumer<Boolean> busyListener) {
+        this.busyListener = busyListener;
+    }
+
+    /**
+     * Queues a command. Its response is passed to {@code onResponse} on the UI thread.
+     *
+     * @param input      the command
+     * @param onResponse receives the response
+     */
+    public void submit(String input, Consumer<String> onResponse) {
+        synchronized (lock) {
+            if (pendingCount++ == 0) {
+                deliverer.execute(() -> busyListener.accept(true));
+            }
+        }
+        worker.execute(() -> run(input, onResponse));
+    }
+
+    /**
+     * Interrupts the running command if it is cancellable.
+     *
+     * @return true if a command was interrupted
+     */
+    public boolean cancel() {
+        synchronized (lock) {
+            if (runningThread == null || !isRunningCancellable) {
+                return false;
+            }
+            runningThread.interrupt();
+            return true;
+        }
+    }
+
+    /**
+     * Stops accepting commands and waits for the queued ones to finish.
+     */
+    public void shutdown() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(String input, Consumer<String> onResponse) {
+        synchronized (lock) {
+            runningThread = Thread.currentThread();
+            isRunningCancellable = isCancellable.test(input);
+        }
+        String response = null;
+        try {
+            response = commands.apply(input);
+        } catch (CancellationException e) {
+            response = "Cancelled: " + input;
+        } finally {
+            synchronized (lock) {
+                runningThread = null;
+                // Clear an interrupt that arrived after the command finished.
+                Thread.interrupted();
+            }
+            if (response != null) {
+                String result = response;
+                deliverer.execute(() -> onResponse.accept(result));
+            }
+            synchronized (lock) {
+                if (--pendingCount == 0) {
+                    deliverer.execute(() -> busyListener.accept(false));
+                }
+            }
+        }
+    }
+}
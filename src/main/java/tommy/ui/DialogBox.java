@@ -2,6 +2,7 @@ package tommy.ui;
 
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -9,6 +10,11 @@ import javafx.scene.layout.HBox;
 
 import java.io.IOException;
 
+/**
+ * A chat bubble: the message text next to the speaker's picture.
+ * Boxes are reusable; {@link #show} replaces what a box displays, so a
+ * transcript cell can keep one box for every message it shows.
+ */
 public class DialogBox extends HBox {
 
     @FXML
@@ -16,7 +22,10 @@ public class DialogBox extends HBox {
     @FXML
     private ImageView displayPicture;
 
-    private DialogBox(String text, Image img) {
+    /**
+     * Creates an empty dialog box from its FXML layout.
+     */
+    public DialogBox() {
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(
                     DialogBox.class.getResource("/view/DialogBox.fxml"));
@@ -26,22 +35,40 @@ public class DialogBox extends HBox {
         } catch (IOException e) {
             e.printStackTrace();
         }
+    }
 
+    /**
+     * Shows a message, with the picture on the right for the user and on the left for Tommy.
+     *
+     * @param text       the message text
+     * @param img        the speaker's picture
+     * @param isFromUser true if the user typed the message
+     */
+    public void show(String text, Image img, boolean isFromUser) {
         dialog.setText(text);
         displayPicture.setImage(img);
+        boolean isPictureFirst = getChildren().get(0) == displayPicture;
+        if (isPictureFirst == isFromUser) {
+            if (isFromUser) {
+                getChildren().setAll(dialog, displayPicture);
+            } else {
+                getChildren().setAll(displayPicture, dialog);
+            }
+        }
+        setAlignment(isFromUser ? Pos.TOP_RIGHT : Pos.TOP_LEFT);
     }
 
     /** User dialog (right side) */
     public static DialogBox getUserDialog(String text, Image img) {
-        DialogBox db = new DialogBox(text, img);
-        db.setAlignment(javafx.geometry.Pos.TOP_RIGHT);
+        DialogBox db = new DialogBox();
+        db.show(text, img, true);
         return db;
     }
 
     /** Tommy dialog (left side) */
     public static DialogBox getDukeDialog(String text, Image img) {
-        DialogBox db = new DialogBox(text, img);
-        db.setAlignment(javafx.geometry.Pos.TOP_LEFT);
+        DialogBox db = new DialogBox();
+        db.show(text, img, false);
         return db;
     }
 }
@@ -0,0 +1,45 @@
+package tommy.ui;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+
+/**
+ * Transcript cell that shows a message as a {@link DialogBox}.
+ * The list view only creates enough cells to fill the window and recycles
+ * them while scrolling, so each cell loads its box once and reuses it.
+ */
+public class DialogCell extends ListCell<Message> {
+    private static final double SCROLL_BAR_ALLOWANCE = 20;
+
+    private final DialogBox box = new DialogBox();
+    private final Image userImage;
+    private final Image tommyImage;
+
+    /**
+     * Creates a cell that shows messages with the given pictures.
+     *
+     * @param userImage  picture next to the user's messages
+     * @param tommyImage picture next to Tommy's messages
+     */
+    public DialogCell(Image userImage, Image tommyImage) {
+        this.userImage = userImage;
+        this.tommyImage = tommyImage;
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        setStyle("-fx-background-color: transparent; -fx-padding: 5;");
+        // Let the bubble wrap to the cell width instead of widening the list.
+        setPrefWidth(0);
+        box.maxWidthProperty().bind(widthProperty().subtract(SCROLL_BAR_ALLOWANCE));
+    }
+
+    @Override
+    protected void updateItem(Message message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        box.show(message.getText(), message.isFromUser() ? userImage : tommyImage, message.isFromUser());
+        setGraphic(box);
+    }
+}
@@ -1,34 +1,54 @@
 package tommy.ui;
 
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Button;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
-import javafx.scene.control.Label;
 import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import javafx.scene.layout.HBox;
-import javafx.scene.layout.VBox;
-import javafx.geometry.Pos;
+import javafx.scene.input.KeyCode;
 import tommy.Tommy;
 
+import java.nio.file.Path;
+
 /**
  * Controller for the main chat window FXML.
  * Manages dialog display and user input handling.
+ *
+ * <p>The transcript is a virtualized {@link ListView}: only the visible messages
+ * have cells, and at most {@link #HISTORY_CAP} messages are kept in memory. Older
+ * messages are moved to {@link #HISTORY_FILE}. The cap can be changed with the
+ * {@code tommy.historyCap} system property.
+ *
+ * <p>Commands run on a {@link CommandRunner} worker thread, so typing stays
+ * responsive during slow commands. A progress indicator is shown while commands
+ * run, and Cancel (or Esc) stops a running query.
  */
 public class MainWindow {
+    private static final int HISTORY_CAP = Integer.getInteger("tommy.historyCap", Transcript.DEFAULT_CAPACITY);
+    private static final Path HISTORY_FILE = Path.of("data", "history.txt");
 
     @FXML
-    private ScrollPane scrollPane;
+    private ListView<Message> transcriptView;
 
     @FXML
-    private VBox dialogContainer;
+    private TextField userInput;
 
     @FXML
-    private TextField userInput;
+    private ProgressIndicator progress;
+
+    @FXML
+    private Button cancelButton;
 
     private Tommy tommy;
+    private CommandRunner runner;
+    private final ObservableList<Message> messages = FXCollections.observableArrayList();
+    private final Transcript transcript = new Transcript(messages, Math.max(10, HISTORY_CAP), HISTORY_FILE);
 
-    // Profile pictures
+    // Profile pictures, shared by every cell
     private final Image userImage =
             new Image(getClass().getResource("/images/User.png").toExternalForm());
 
@@ -37,15 +57,33 @@ public class MainWindow {
 
     @FXML
     public void initialize() {
-        // Scroll to bottom whenever dialogContainer grows
-        dialogContainer.heightProperty().addListener((obs, oldVal, newVal) -> scrollPane.setVvalue(1.0));
+        transcriptView.setItems(messages);
+        transcriptView.setCellFactory(view -> new DialogCell(userImage, tommyImage));
+        userInput.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.ESCAPE) {
+                handleCancel();
+            }
+        });
     }
 
     public void setTommy(Tommy tommy) {
         this.tommy = tommy;
+        runner = new CommandRunner(tommy::getResponse, tommy::isQuery, Platform::runLater);
+        runner.setBusyListener(this::showBusy);
 
         // Display welcome message from Tommy
-        dialogContainer.getChildren().add(getDialog("Hello! I'm Tommy. How can I help you?", tommyImage));
+        addMessage(new Message("Hello! I'm Tommy. How can I help you?", false));
+    }
+
+    /**
+     * Waits for queued commands to finish and writes any chat history that was
+     * moved out of memory to disk.
+     */
+    public void close() {
+        if (runner != null) {
+            runner.shutdown();
+        }
+        transcript.close();
     }
 
     @FXML
@@ -54,38 +92,31 @@ public class MainWindow {
         if (input.isEmpty()) return;
 
         // Display user input
-        dialogContainer.getChildren().add(getDialog(input, userImage));
+        addMessage(new Message(input, true));
 
-        // Get Tommy's response
-        String response = tommy.getResponse(input);
-        dialogContainer.getChildren().add(getDialog(response, tommyImage));
+        // Get Tommy's response without blocking the window
+        runner.submit(input, response -> addMessage(new Message(response, false)));
 
         userInput.clear();
     }
 
+    @FXML
+    private void handleCancel() {
+        runner.cancel();
+    }
+
+    private void showBusy(boolean isBusy) {
+        progress.setVisible(isBusy);
+        progress.setManaged(isBusy);
+        cancelButton.setVisible(isBusy);
+        cancelButton.setManaged(isBusy);
+    }
+
     /**
-     * Returns a HBox containing a Label (message) and an ImageView (profile picture)
-     * styled as a dialog bubble.
+     * Appends a message to the transcript and scrolls to it.
      */
-    private HBox getDialog(String text, Image img) {
-        Label label = new Label(text);
-        label.setWrapText(true);
-        label.setStyle("-fx-background-color: lightgray; -fx-padding: 5; -fx-background-radius: 10;");
-
-        ImageView displayPicture = new ImageView(img);
-        displayPicture.setFitWidth(50);
-        displayPicture.setFitHeight(50);
-
-        HBox hbox = new HBox(10);
-
-        if (img == tommyImage) {
-            hbox.getChildren().addAll(displayPicture, label); // Tommy: image on left
-            hbox.setAlignment(Pos.TOP_LEFT);
-        } else {
-            hbox.getChildren().addAll(label, displayPicture); // User: image on right
-            hbox.setAlignment(Pos.TOP_RIGHT);
-        }
-
-        return hbox;
+    private void addMessage(Message message) {
+        transcript.add(message);
+        transcriptView.scrollTo(messages.size() - 1);
     }
 }
@@ -0,0 +1,38 @@
+package tommy.ui;
+
+/**
+ * One entry of the chat transcript: a line typed by the user or a reply from Tommy.
+ */
+public class Message {
+    private final String text;
+    private final boolean isFromUser;
+
+    /**
+     * Creates a message.
+     *
+     * @param text       the message text
+     * @param isFromUser true if the user typed it, false if Tommy replied with it
+     */
+    public Message(String text, boolean isFromUser) {
+        this.text = text;
+        this.isFromUser = isFromUser;
+    }
+
+    /**
+     * Returns the message text.
+     *
+     * @return the text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns whether the user typed this message.
+     *
+     * @return true for user input, false for Tommy's replies
+     */
+    public boolean isFromUser() {
+        return isFromUser;
+    }
+}
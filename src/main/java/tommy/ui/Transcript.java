@@ -0,0 +1,102 @@
+package tommy.ui;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chat history with a bounded number of messages in memory.
+ *
+ * <p>Messages are appended to a caller-supplied list (the GUI passes the list
+ * backing its {@code ListView}). Once the list holds more than {@code capacity}
+ * messages, the oldest tenth is dropped in one step, so trimming costs amortized
+ * constant time per message. Dropped messages are appended to a spill file, if
+ * one is given, on a background thread.
+ */
+public class Transcript {
+    /** Number of messages kept in memory when no capacity is configured. */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private final List<Message> messages;
+    private final int capacity;
+    private final Path spillFile;
+    private final ExecutorService spiller;
+
+    /**
+     * Creates a transcript.
+     *
+     * @param messages  list that receives the messages kept in memory
+     * @param capacity  maximum number of messages kept in memory (at least 10)
+     * @param spillFile file that receives dropped messages, or null to discard them
+     */
+    public Transcript(List<Message> messages, int capacity, Path spillFile) {
+        assert capacity >= 10 : "Transcript capacity should be at least 10";
+        this.messages = messages;
+        this.capacity = capacity;
+        this.spillFile = spillFile;
+        this.spiller = spillFile == null ? null : Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tommy-transcript");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Appends a message, dropping the oldest messages if the capacity is exceeded.
+     *
+     * @param message the message to append
+     */
+    public void add(Message message) {
+        messages.add(message);
+        if (messages.size() <= capacity) {
+            return;
+        }
+        List<Message> dropped = messages.subList(0, messages.size() - capacity + capacity / 10);
+        if (spiller != null) {
+            List<Message> copy = new ArrayList<>(dropped);
+            spiller.execute(() -> spill(copy));
+        }
+        dropped.clear();
+    }
+
+    /**
+     * Waits until every dropped message has been written to the spill file.
+     */
+    public void close() {
+        if (spiller == null) {
+            return;
+        }
+        spiller.shutdown();
+        try {
+            spiller.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void spill(List<Message> dropped) {
+        try {
+            if (spillFile.getParent() != null) {
+                Files.createDirectories(spillFile.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Message message : dropped) {
+                    writer.write(message.isFromUser() ? "> " : "");
+                    writer.write(message.getText());
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not save chat history: " + e.getMessage());
+        }
+    }
+}
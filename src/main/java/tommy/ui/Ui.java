@@ -1,5 +1,6 @@
 package tommy.ui;
 
+import java.io.PrintStream;
 import java.util.Scanner;
 
 public class Ui {
@@ -24,6 +25,15 @@ public class Ui {
         System.out.println(msg);
     }
 
+    /**
+     * Returns the stream that long responses are written to piece by piece.
+     *
+     * @return the console output
+     */
+    public PrintStream getOutput() {
+        return System.out;
+    }
+
     public void showError(String msg) {
         System.out.println("OOPS!!! " + msg);
     }
@@ -0,0 +1,120 @@
+package tommy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tommy.task.Task;
+import tommy.task.Todo;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryTaskFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testConvertFromText() throws Exception {
+        Path text = tempDir.resolve("tommy.txt");
+        Path binary = tempDir.resolve("tommy.bin");
+        Files.writeString(text, "D | 0 | return book | 2019-12-02\n"
+                + "T | 1 | read book\n"
+                + "E | 0 | meeting | Mon 2pm | 4pm\n");
+
+        BinaryTaskFile.convert(text.toString(), binary.toString());
+        BinaryTaskFile file = BinaryTaskFile.open(binary);
+
+        assertTrue(BinaryTaskFile.isBinary(binary));
+        assertFalse(BinaryTaskFile.isBinary(text));
+        assertEquals(3, file.size());
+        assertEquals("D | 0 | return book | 2019-12-02", file.decode(0).toFileString());
+        assertEquals("T | 1 | read book", file.decode(1).toFileString());
+        assertEquals("E | 0 | meeting | Mon 2pm | 4pm", file.decode(2).toFileString());
+    }
+
+    @Test
+    public void testMappedListWithJournal() throws Exception {
+        Path text = tempDir.resolve("tommy.txt");
+        Path binary = tempDir.resolve("tommy.bin");
+        Files.writeString(text, "T | 0 | read book\nT | 0 | return book\n");
+        BinaryTaskFile.convert(text.toString(), binary.toString());
+
+        Storage storage = new Storage(binary.toString(), true);
+        TaskList list = new TaskList(storage.load());
+        storage.saveMark(list, list.markDone(1));
+        storage.saveDelete(list, list.remove(0));
+        Task t = new Todo("meeting");
+        list.add(t);
+        storage.saveAdd(list, t);
+
+        storage.compact();
+        List<Task> loaded = new Storage(binary.toString(), true).load();
+        assertEquals(2, loaded.size());
+        assertEquals("T | 1 | return book", loaded.get(0).toFileString());
+        assertEquals("T | 0 | meeting", loaded.get(1).toFileString());
+    }
+
+    @Test
+    public void testMappedListReadsReplacedFileAfterCompaction() throws Exception {
+        Path text = tempDir.resolve("tommy.txt");
+        Path binary = tempDir.resolve("tommy.bin");
+        StringBuilder lines = new StringBuilder();
+        for (int i = 1; i <= 3000; i++) {
+            lines.append("T | 0 | task ").append(i).append('\n');
+        }
+        Files.writeString(text, lines);
+        BinaryTaskFile.convert(text.toString(), binary.toString());
+
+        Storage storage = new Storage(binary.toString(), true);
+        TaskList list = new TaskList(storage.load(), storage.getNextId());
+        storage.saveDelete(list, list.removeById(1));
+        storage.saveMark(list, list.markDoneById(2000));
+        Task t = new Todo("meeting");
+        list.add(t);
+        storage.saveAdd(list, t);
+        storage.compact();
+        storage.saveDelete(list, list.removeById(2));
+        storage.compact();
+
+        assertEquals(2999, list.size());
+        assertEquals("T | 0 | task 3", list.get(0).toFileString());
+        assertEquals(3, list.get(0).getId());
+        assertEquals("T | 1 | task 2000", list.get(1997).toFileString());
+        assertEquals("T | 0 | task 3000", list.get(2997).toFileString());
+        assertEquals(t, list.get(2998));
+        storage.close();
+        assertEquals(2999, new Storage(binary.toString(), true).load().size());
+    }
+
+    @Test
+    public void testRestoredTasksKeepTheirPlaceInMappedList() throws Exception {
+        Path text = tempDir.resolve("tommy.txt");
+        Path binary = tempDir.resolve("tommy.bin");
+        Files.writeString(text, "T | 0 | a\nT | 0 | b\nT | 0 | c\nT | 0 | d\n");
+        BinaryTaskFile.convert(text.toString(), binary.toString());
+
+        Storage storage = new Storage(binary.toString(), true);
+        TaskList list = new TaskList(storage.load(), storage.getNextId());
+        List<Task> removed = List.of(list.get(0), list.get(2));
+        list.removeAll(removed);
+        storage.saveDelete(list, removed);
+        Task t = new Todo("e");
+        list.add(t);
+        storage.saveAdd(list, t);
+        for (Task task : removed) {
+            list.add(task);
+        }
+        storage.saveAdd(list, removed);
+
+        assertEquals("T | 0 | a", list.get(0).toFileString());
+        assertEquals("T | 0 | c", list.get(2).toFileString());
+        storage.compact();
+        List<Task> loaded = new Storage(binary.toString(), true).load();
+        assertEquals(List.of("1 | T | 0 | a", "2 | T | 0 | b", "3 | T | 0 | c", "4 | T | 0 | d", "5 | T | 0 | e"),
+                loaded.stream().map(Parser::toFileLine).collect(Collectors.toList()));
+    }
+}
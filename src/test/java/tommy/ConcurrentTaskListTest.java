@@ -0,0 +1,67 @@
+package tommy;
+
+import org.junit.jupiter.api.Test;
+import tommy.task.Task;
+import tommy.task.Todo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentTaskListTest {
+
+    @Test
+    public void testSnapshotIsStableAcrossWrites() {
+        ConcurrentTaskList list = new ConcurrentTaskList();
+        list.add(new Todo("read book"));
+        List<Task> snapshot = list.getTasks();
+        assertSame(snapshot, list.getTasks());
+
+        list.add(new Todo("return book"));
+        assertEquals(1, snapshot.size());
+        assertEquals(2, list.getTasks().size());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(new Todo("meeting")));
+    }
+
+    @Test
+    public void testConcurrentReadsAndWrites() throws Exception {
+        ConcurrentTaskList list = new ConcurrentTaskList();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            int writer = w;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    Task task = new Todo("book " + writer + " " + i);
+                    list.add(task);
+                    if (i % 2 == 1) {
+                        list.removeById(task.getId());
+                    }
+                }
+            }));
+        }
+        for (int r = 0; r < 4; r++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    for (Task task : list.getTasks()) {
+                        assertNotNull(task);
+                    }
+                    list.findTasks("book");
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(4000, list.size());
+        assertEquals(4000, list.findTasks("book").size());
+    }
+}
@@ -0,0 +1,47 @@
+package tommy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tommy.task.Task;
+import tommy.task.Todo;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testFailedSaveDoesNotLeaveStepToApplyAgain() throws Exception {
+        TaskList list = new TaskList();
+        Task task = new Todo("read book");
+        list.add(task);
+        list.add(new Todo("return book"));
+        History history = new History(History.DEFAULT_DEPTH);
+        list.removeById(task.getId());
+        history.record(new History.Change(History.Kind.DELETE, List.of(task)));
+
+        Storage failing = new Storage(tempDir.resolve("tommy.txt").toString()) {
+            @Override
+            public void saveAdd(TaskList tasks, Collection<Task> added) throws TommyException {
+                throw new TommyException("Disk is full");
+            }
+        };
+        assertThrows(TommyException.class, () -> history.undo(list, failing));
+        assertNull(history.undo(list, failing));
+        assertEquals(2, list.size());
+        assertEquals(List.of("read book", "return book"),
+                List.of(list.get(0).getDescription(), list.get(1).getDescription()));
+
+        Storage storage = new Storage(tempDir.resolve("tommy.txt").toString());
+        assertNotNull(history.redo(list, storage));
+        assertEquals(1, list.size());
+        assertNull(list.getById(task.getId()));
+    }
+}
@@ -0,0 +1,55 @@
+package tommy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tommy.task.Task;
+import tommy.task.Todo;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testLeastRecentlyUsedListIsEvicted() throws Exception {
+        ListCache cache = new ListCache(tempDir, ".txt", 2);
+        ListCache.OpenList a = cache.open("a");
+        ListCache.OpenList b = cache.open("b");
+        assertSame(a, cache.open("a"));
+
+        cache.open("c");
+        assertEquals(2, cache.size());
+        assertTrue(cache.isLoaded("a"));
+        assertFalse(cache.isLoaded("b"));
+        assertNotSame(b, cache.open("b"));
+    }
+
+    @Test
+    public void testEvictedListIsFlushedAndReloaded() throws Exception {
+        ListCache cache = new ListCache(tempDir, ".txt", 1);
+        ListCache.OpenList work = cache.open("work");
+        work.storage.beginBatch(100);
+        Task t = new Todo("write report");
+        work.tasks.add(t);
+        work.storage.saveAdd(work.tasks, t);
+
+        cache.open("home");
+        assertFalse(cache.isLoaded("work"));
+
+        ListCache.OpenList reloaded = cache.open("work");
+        assertEquals(1, reloaded.tasks.size());
+        assertEquals("T | 0 | write report", reloaded.tasks.get(0).toFileString());
+    }
+
+    @Test
+    public void testListNames() {
+        assertTrue(ListCache.isValidName("project-X_2"));
+        assertFalse(ListCache.isValidName("../secret"));
+        assertEquals("tommy", ListCache.nameOf(Path.of("data", "tommy.txt")));
+        assertEquals(".bin", ListCache.extensionOf(Path.of("data", "tommy.bin")));
+    }
+}
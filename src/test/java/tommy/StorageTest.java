@@ -0,0 +1,249 @@
+package tommy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tommy.metrics.Metrics;
+import tommy.task.Deadline;
+import tommy.task.Task;
+import tommy.task.Todo;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testJournalReplay() throws Exception {
+        String filePath = tempDir.resolve("tommy.txt").toString();
+        Storage storage = new Storage(filePath, true);
+        TaskList list = new TaskList(storage.load());
+
+        Task t1 = new Todo("read book");
+        Task t2 = new Deadline("return book", LocalDate.of(2019, 12, 2));
+        Task t3 = new Todo("meeting");
+        list.add(t1);
+        storage.saveAdd(list, t1);
+        list.add(t2);
+        storage.saveAdd(list, t2);
+        list.add(t3);
+        storage.saveAdd(list, t3);
+        t2.markDone();
+        storage.saveMark(list, t2);
+        list.remove(0);
+        storage.saveDelete(list, t1);
+
+        List<Task> loaded = new Storage(filePath, true).load();
+        assertEquals(2, loaded.size());
+        assertEquals("D | 1 | return book | 2019-12-02", loaded.get(0).toFileString());
+        assertEquals("T | 0 | meeting", loaded.get(1).toFileString());
+    }
+
+    @Test
+    public void testIdsArePersistedAndNeverReused() throws Exception {
+        Path file = tempDir.resolve("tommy.txt");
+        Files.writeString(file, "T | 0 | read book\nT | 1 | return book\n");
+        Storage storage = new Storage(file.toString(), true);
+        TaskList list = new TaskList(storage.load(), storage.getNextId());
+        assertEquals(2, list.get(1).getId());
+
+        Task t = new Todo("meeting");
+        list.add(t);
+        storage.saveAdd(list, t);
+        storage.saveDelete(list, list.removeById(1));
+        storage.saveDelete(list, list.removeById(3));
+        storage.saveMark(list, list.markDoneById(2));
+
+        Storage reopened = new Storage(file.toString(), true);
+        List<Task> loaded = reopened.load();
+        assertEquals(1, loaded.size());
+        assertEquals("2 | T | 1 | return book", Parser.toFileLine(loaded.get(0)));
+        assertEquals(4, reopened.getNextId());
+
+        reopened.save(new TaskList(loaded, reopened.getNextId()));
+        assertEquals(List.of("# 4 4", "2 | T | 1 | return book"), Files.readAllLines(file));
+    }
+
+    @Test
+    public void testFailedCompactionIsCountedAndKeepsJournal() throws Exception {
+        Path file = tempDir.resolve("tommy.txt");
+        Storage storage = new Storage(file.toString(), true, 2);
+        TaskList list = new TaskList(storage.load());
+        Files.writeString(file, "not a task\n");
+        long errors = Metrics.get().getErrorCount();
+
+        for (String description : new String[] {"read book", "return book"}) {
+            Task t = new Todo(description);
+            list.add(t);
+            storage.saveAdd(list, t);
+        }
+        storage.awaitCompaction();
+
+        assertEquals(errors + 1, Metrics.get().getErrorCount());
+        assertTrue(Files.exists(tempDir.resolve("tommy.txt.journal.sealed")));
+    }
+
+    @Test
+    public void testSaveClearsJournal() throws Exception {
+        Path file = tempDir.resolve("tommy.txt");
+        Storage storage = new Storage(file.toString(), true);
+        TaskList list = new TaskList(storage.load());
+
+        Task t = new Todo("read book");
+        list.add(t);
+        storage.saveAdd(list, t);
+        assertTrue(Files.exists(tempDir.resolve("tommy.txt.journal")));
+
+        storage.save(list);
+        assertFalse(Files.exists(tempDir.resolve("tommy.txt.journal")));
+        assertEquals(1, new Storage(file.toString(), true).load().size());
+    }
+
+    @Test
+    public void testBatchCommitsEveryInterval() throws Exception {
+        String filePath = tempDir.resolve("tommy.txt").toString();
+        Storage storage = new Storage(filePath, true);
+        TaskList list = new TaskList(storage.load());
+
+        storage.beginBatch(2);
+        for (String description : new String[] {"read book", "return book", "meeting"}) {
+            Task t = new Todo(description);
+            list.add(t);
+            storage.saveAdd(list, t);
+        }
+        assertEquals(2, new Storage(filePath, true).load().size());
+
+        storage.endBatch();
+        List<Task> loaded = new Storage(filePath, true).load();
+        assertEquals(3, loaded.size());
+        assertEquals("T | 0 | meeting", loaded.get(2).toFileString());
+    }
+
+    @Test
+    public void testWriteBehindDefersWritesUntilCommit() throws Exception {
+        String filePath = tempDir.resolve("tommy.txt").toString();
+        Storage storage = new Storage(filePath, true, Storage.DEFAULT_COMPACTION_THRESHOLD, 60_000);
+        TaskList list = new ConcurrentTaskList(storage.load());
+
+        Task t = new Todo("read book");
+        list.add(t);
+        storage.saveAdd(list, t);
+        list.markDone(0);
+        storage.saveMark(list, t);
+        assertEquals(0, new Storage(filePath, true).load().size());
+
+        storage.commit();
+        List<Task> loaded = new Storage(filePath, true).load();
+        assertEquals(1, loaded.size());
+        assertEquals("T | 1 | read book", loaded.get(0).toFileString());
+    }
+
+    @Test
+    public void testCompactionFoldsJournalIntoSnapshot() throws Exception {
+        Path file = tempDir.resolve("tommy.txt");
+        Storage storage = new Storage(file.toString(), true, 2);
+        TaskList list = new TaskList(storage.load());
+
+        for (int i = 0; i < 5; i++) {
+            Task t = new Todo("task " + i);
+            list.add(t);
+            storage.saveAdd(list, t);
+        }
+        storage.awaitCompaction();
+        storage.compact();
+
+        assertFalse(Files.exists(tempDir.resolve("tommy.txt.journal")));
+        assertEquals("# 5 6", Files.readAllLines(file).get(0));
+        assertEquals(5, new Storage(file.toString(), true).load().size());
+    }
+
+    @Test
+    public void testTornJournalRecordIsDropped() throws Exception {
+        Path file = tempDir.resolve("tommy.txt");
+        Storage storage = new Storage(file.toString(), true);
+        TaskList list = new TaskList(storage.load());
+        Task t = new Todo("read book");
+        list.add(t);
+        storage.saveAdd(list, t);
+        Files.writeString(tempDir.resolve("tommy.txt.journal"), "2 | add | T | 0 | ret",
+                StandardOpenOption.APPEND);
+
+        Storage reopened = new Storage(file.toString(), true);
+        TaskList reloaded = new TaskList(reopened.load());
+        assertEquals(1, reloaded.size());
+
+        Task t2 = new Todo("return book");
+        reloaded.add(t2);
+        reopened.saveAdd(reloaded, t2);
+        assertEquals(2, new Storage(file.toString(), true).load().size());
+    }
+
+    @Test
+    public void testLoadScansUtf8Lines() throws Exception {
+        Path file = tempDir.resolve("tommy.txt");
+        Files.write(file, List.of("# 7", "T | 1 | caf\u00e9 \u2615", "D | 0 | return book | 2019-12-02",
+                "E | 0 | project | 2019-12-02 14:00 | 16:00", "T | 0 | extra | field"),
+                StandardCharsets.UTF_8);
+        Files.writeString(file, "D | 1 | no line break | 2020-02-29", StandardOpenOption.APPEND);
+
+        Storage.Snapshot snapshot = new Storage(file.toString()).readSnapshot();
+        assertEquals(7, snapshot.seq);
+        assertEquals(5, snapshot.tasks.size());
+        for (int i = 0; i < snapshot.tasks.size(); i++) {
+            String line = snapshot.tasks.get(i).toFileString();
+            assertEquals(Parser.parseTaskFromFile(line).toFileString(), line);
+        }
+        assertEquals("T | 1 | caf\u00e9 \u2615", snapshot.tasks.get(0).toFileString());
+        assertEquals("T | 0 | extra", snapshot.tasks.get(3).toFileString());
+        assertEquals(LocalDate.of(2020, 2, 29), ((Deadline) snapshot.tasks.get(4)).getBy());
+    }
+
+    @Test
+    public void testLoadRejectsCorruptedLines() throws Exception {
+        Path file = tempDir.resolve("tommy.txt");
+        for (String line : List.of("X | 0 | what", "T | 0", "D | 0 | no date", "D | 0 | bad | 2019-13-02",
+                "D | 0 | far | +999999999-12-31", "E | 0 | no end | 2019-12-02", "")) {
+            Files.writeString(file, "T | 0 | fine\n" + line + "\n");
+            TommyException e = assertThrows(TommyException.class, () -> new Storage(file.toString()).load());
+            assertEquals("Corrupted data file at line 2", e.getMessage());
+            assertThrows(TommyException.class, () -> Parser.parseTaskFromFile(line));
+        }
+    }
+
+    @Test
+    public void testChunkedLoadKeepsOrderAndLineNumbers() throws Exception {
+        Path file = tempDir.resolve("tommy.txt");
+        List<String> lines = new ArrayList<>(List.of("# 3"));
+        for (int i = 0; i < 500; i++) {
+            lines.add(i % 2 == 0 ? "T | 0 | task " + i : "D | 1 | task " + i + " | 2019-12-02");
+        }
+        Files.write(file, lines);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Task> tasks = new ArrayList<>();
+            assertEquals(3, TaskFileScanner.read(file, tasks, pool, 64).seq);
+            assertEquals(500, tasks.size());
+            for (int i = 0; i < 500; i++) {
+                assertEquals(lines.get(i + 1), tasks.get(i).toFileString());
+            }
+
+            lines.set(377, "T | 0");
+            Files.write(file, lines);
+            TommyException e = assertThrows(TommyException.class,
+                    () -> TaskFileScanner.read(file, new ArrayList<>(), pool, 64));
+            assertEquals("Corrupted data file at line 378", e.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package tommy;
 
 import org.junit.jupiter.api.Test;
+import tommy.task.Deadline;
+import tommy.task.Event;
 import tommy.task.Task;
 import tommy.task.Todo;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TaskListTest {
@@ -36,5 +43,225 @@ public class TaskListTest {
         assertEquals(1, list.getTasks().size());
         assertTrue(list.getTasks().contains(t));
     }
-}
 
+    @Test
+    public void testFindTasksTracksAddAndRemove() {
+        TaskList list = new TaskList();
+        Task t1 = new Todo("read book");
+        Task t2 = new Todo("return Books");
+        Task t3 = new Todo("meeting");
+        list.add(t1);
+        list.add(t2);
+
+        assertEquals(List.of(t1, t2), list.findTasks("book"));
+        assertEquals(List.of(t2), list.findTasks("RET books"));
+        assertEquals(List.of(t1), list.findTasks("ad bo"));
+
+        list.add(t3);
+        list.remove(0);
+        assertEquals(List.of(t2), list.findTasks("book"));
+        assertEquals(List.of(t3), list.findTasks("eet"));
+        assertTrue(list.findTasks("read").isEmpty());
+    }
+
+    @Test
+    public void testRankedFindToleratesTyposAndLimitsResults() {
+        TaskList list = new TaskList();
+        Task t1 = new Todo("read book");
+        Task t2 = new Todo("buy bookshelf");
+        Task t3 = new Todo("read the long book about everything");
+        list.add(t1);
+        list.add(t2);
+        list.add(t3);
+
+        assertEquals(List.of(t1, t3), list.findTasks("read bok", 2));
+        assertEquals(List.of(t1), list.findTasks("raed book", 1));
+        assertEquals(List.of(t1, t3), list.findTasks("bok", 5));
+        assertEquals(List.of(t3), list.findTasks("everyting", 5));
+        assertEquals(List.of(t2), list.findTasks("bookshelv", 5));
+        assertTrue(list.findTasks("standup", 5).isEmpty());
+    }
+
+    @Test
+    public void testDeadlineQueriesSkipDoneTasks() {
+        TaskList list = new TaskList();
+        Task late = new Deadline("late", LocalDate.of(2026, 12, 5));
+        Task early = new Deadline("early", LocalDate.of(2026, 11, 1));
+        Task todo = new Todo("read book");
+        list.add(late);
+        list.add(early);
+        list.add(todo);
+
+        assertEquals(List.of(early), list.findDeadlinesBefore(LocalDate.of(2026, 12, 1)));
+        assertEquals(List.of(early, late),
+                list.findDeadlinesBetween(LocalDate.of(2026, 11, 1), LocalDate.of(2026, 12, 5)));
+
+        list.markDone(1);
+        assertEquals(List.of(late), list.findUpcomingDeadlines(LocalDate.of(2026, 1, 1), 5));
+        list.unmarkDone(1);
+        assertEquals(List.of(early), list.findUpcomingDeadlines(LocalDate.of(2026, 1, 1), 1));
+
+        list.remove(1);
+        assertTrue(list.findDeadlinesBefore(LocalDate.of(2026, 12, 1)).isEmpty());
+    }
+
+    @Test
+    public void testFindOverlappingEvents() {
+        TaskList list = new TaskList();
+        Event standup = new Event("standup", "2026-02-15 09:00", "09:30");
+        Event review = new Event("review", "2026-02-15 09:15", "10:00");
+        Event lunch = new Event("lunch", "2026-02-15 12:00", "13:00");
+        Event party = new Event("party", "Mon 2pm", "4pm");
+        list.add(standup);
+        list.add(review);
+        list.add(lunch);
+        list.add(party);
+
+        assertEquals(List.of(review), list.findOverlappingEvents(standup));
+        assertEquals(List.of(standup, review, lunch),
+                list.findOverlappingEvents(new Event("offsite", "2026-02-15", "2026-02-15")));
+        assertTrue(list.findOverlappingEvents(party).isEmpty());
+
+        list.remove(1);
+        assertTrue(list.findOverlappingEvents(standup).isEmpty());
+    }
+
+    @Test
+    public void testRemoveByIdKeepsOtherIds() {
+        TaskList list = new TaskList();
+        Task t1 = new Todo("read book");
+        Task t2 = new Todo("return book");
+        Task t3 = new Todo("meeting");
+        list.add(t1);
+        list.add(t2);
+        list.add(t3);
+        assertEquals(3, t3.getId());
+
+        assertEquals(t2, list.removeById(t2.getId()));
+        assertNull(list.removeById(t2.getId()));
+        assertEquals(2, list.size());
+        assertEquals(t3, list.getById(3));
+        assertEquals(List.of(t1), list.findTasks("book"));
+        assertEquals(t3, list.markDoneById(3));
+        assertTrue(t3.getDone());
+
+        assertEquals(t3, list.get(1));
+        assertEquals(List.of(t1, t3), list.getTasks());
+        Task t4 = new Todo("lunch");
+        list.add(t4);
+        assertEquals(4, t4.getId());
+        assertEquals(t4, list.getById(4));
+    }
+
+    @Test
+    public void testPositionsSkipTombstonesWithoutCompacting() {
+        TaskList list = new TaskList();
+        List<Task> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (int round = 0; round < 2000; round++) {
+            int choice = random.nextInt(4);
+            if (choice == 0 || expected.isEmpty()) {
+                Task task = new Todo("task " + round);
+                list.add(task);
+                expected.add(task);
+            } else if (choice == 1) {
+                Task task = expected.remove(random.nextInt(expected.size()));
+                assertEquals(task, list.removeById(task.getId()));
+            } else if (choice == 2) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), list.remove(index));
+            } else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.get(index), list.get(index));
+            }
+            assertEquals(expected.size(), list.size());
+        }
+        assertEquals(expected, list.getTasks());
+    }
+
+    @Test
+    public void testRestoredTasksReturnToTheirPlace() {
+        TaskList list = new TaskList();
+        List<Task> all = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            Task task = new Todo("task " + i + (i % 2 == 0 ? " book" : ""));
+            list.add(task);
+            all.add(task);
+        }
+        assertEquals(List.of(all.get(0)), list.findTasks("task 1"));
+        List<Task> removed = List.of(all.get(1), all.get(3), all.get(4));
+        list.removeAll(removed);
+        list.add(new Todo("task 7"));
+
+        list.add(all.get(4));
+        list.add(all.get(1));
+        assertEquals(List.of(all.get(1), all.get(5)), list.findTasks("book"));
+        assertEquals(all.get(1), list.get(1));
+        assertEquals(List.of(all.get(0), all.get(1), all.get(2), all.get(4), all.get(5)),
+                list.getTasks().subList(0, 5));
+        assertEquals(7, list.getTasks().get(5).getId());
+        assertEquals(List.of(all.get(1), all.get(5)), list.findTasks("book"));
+        assertEquals(all.get(4), list.getById(5));
+        assertEquals(8, list.getNextId());
+    }
+
+    @Test
+    public void testTasksWithoutIdsAreNumbered() {
+        Task t1 = new Todo("read book");
+        Task t2 = new Todo("return book");
+        t2.setId(7);
+        TaskList list = new TaskList(new ArrayList<>(List.of(t1, t2)));
+
+        assertEquals(t2, list.getById(7));
+        assertEquals(8, t1.getId());
+        assertEquals(9, list.getNextId());
+    }
+
+    @Test
+    public void testScansAgreeOnBothBackends() {
+        TaskList plain = new TaskList();
+        TaskList columnar = new TaskList(new ColumnarTaskList());
+        for (TaskList list : List.of(plain, columnar)) {
+            for (int i = 1; i <= 200; i++) {
+                Task task;
+                if (i % 3 == 0) {
+                    task = new Deadline("deadline " + i, LocalDate.of(2026, 1, 1).plusDays(i));
+                } else if (i % 3 == 1) {
+                    task = new Event("event " + i, "2026-03-01 10:00", "11:00");
+                } else {
+                    task = new Todo("todo " + i);
+                }
+                if (i % 4 == 0) {
+                    task.markDone();
+                }
+                list.add(task);
+            }
+            list.markDoneById(3);
+            list.unmarkDoneById(12);
+            Task removed = list.removeById(6);
+            list.removeAll(List.of(list.getById(7), list.getById(9)));
+            list.add(removed);
+            list.remove(0);
+        }
+
+        for (boolean isDone : new boolean[] {true, false}) {
+            assertEquals(ids(plain.findByStatus(isDone)), ids(columnar.findByStatus(isDone)));
+        }
+        for (char type : new char[] {'T', 'D', 'E'}) {
+            assertEquals(ids(plain.findByType(type)), ids(columnar.findByType(type)));
+        }
+        assertEquals(65, columnar.findByType('D').size());
+        LocalDate cutoff = LocalDate.of(2026, 4, 1);
+        assertEquals(plain.countUndoneDeadlinesBefore(cutoff), columnar.countUndoneDeadlinesBefore(cutoff));
+        assertEquals(21, columnar.countUndoneDeadlinesBefore(cutoff));
+        assertEquals(ids(plain.getTasks()), ids(columnar.getTasks()));
+    }
+
+    private static List<Integer> ids(List<Task> tasks) {
+        List<Integer> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
@@ -6,6 +6,8 @@ import tommy.task.Event;
 import tommy.task.Todo;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import static org.junit.jupiter.api.Assertions.*;
 
 class TaskTest {
@@ -54,6 +56,23 @@ class TaskTest {
         assertEquals("E | 1 | meeting | Mon 2pm | 4pm", event.toFileString());
     }
 
+    @Test
+    void testEventTimesParsing() {
+        Event timed = new Event("standup", "2026-02-15 09:00", "09:30");
+        assertTrue(timed.hasTimes());
+        assertEquals(LocalDateTime.of(2026, 2, 15, 9, 0), timed.getStart());
+        assertEquals(LocalDateTime.of(2026, 2, 15, 9, 30), timed.getEnd());
+
+        Event allDay = new Event("offsite", "2026-02-15", "2026-02-16");
+        assertEquals(LocalDateTime.of(2026, 2, 17, 0, 0), allDay.getEnd());
+
+        Event freeForm = new Event("meeting", "Mon 2pm", "4pm");
+        assertFalse(freeForm.hasTimes());
+        assertEquals("E | 0 | meeting | Mon 2pm | 4pm", freeForm.toFileString());
+
+        assertFalse(new Event("backwards", "2026-02-15 10:00", "09:00").hasTimes());
+    }
+
     @Test
     void testTaskStatusIcon() {
         Todo todo = new Todo("borrow book");
@@ -61,4 +80,24 @@ class TaskTest {
         todo.markDone();
         assertEquals("X", todo.getStatusIcon());
     }
+
+    @Test
+    void testCompactFieldsKeepTheirValues() {
+        Deadline deadline = new Deadline("submit report", LocalDate.of(2023, 2, 10));
+        deadline.markDone();
+        deadline.setId(Integer.MAX_VALUE);
+        assertTrue(deadline.getDone());
+        assertEquals(Integer.MAX_VALUE, deadline.getId());
+        deadline.unmarkDone();
+        assertFalse(deadline.getDone());
+        assertEquals(Integer.MAX_VALUE, deadline.getId());
+        assertEquals(LocalDate.of(2023, 2, 10).toEpochDay(), deadline.getByDay());
+
+        Event first = new Event(new String("standup"), "2026-02-15 09:00", "09:30");
+        Event second = new Event(new String("standup"), "2026-02-15 09:00", "09:30");
+        assertSame(first.getDescription(), second.getDescription());
+        assertSame(first.getFrom(), second.getFrom());
+        assertEquals(LocalDateTime.of(2026, 2, 15, 9, 0).toEpochSecond(ZoneOffset.UTC),
+                second.getStartSecond());
+    }
 }
@@ -0,0 +1,123 @@
+package tommy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TommyServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testConcurrentClientsShareOneTaskList() throws Exception {
+        String filePath = tempDir.resolve("tommy.txt").toString();
+        TommyServer server = new TommyServer(new Tommy(filePath), 0);
+        server.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            URI uri = URI.create("http://localhost:" + server.getPort() + "/");
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .POST(HttpRequest.BodyPublishers.ofString("todo task " + i))
+                        .build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.get().statusCode());
+            }
+
+            HttpResponse<String> list = client.send(
+                    HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString("list")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertTrue(list.body().contains("200. [T][ ] task"));
+
+            HttpResponse<String> get = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(405, get.statusCode());
+        } finally {
+            server.stop();
+        }
+        assertEquals(200, new Storage(filePath, true).load().size());
+    }
+
+    @Test
+    public void testSessionsKeepTheirOwnPagesAndList() throws Exception {
+        TommyServer server = new TommyServer(new Tommy(tempDir.resolve("tommy.txt").toString(), 0), 0);
+        server.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            URI uri = URI.create("http://localhost:" + server.getPort() + "/");
+            for (int i = 1; i <= 120; i++) {
+                post(client, uri, "a", "todo task " + i);
+            }
+
+            assertTrue(post(client, uri, "a", "list page 1").contains("\n1. [T][ ] task 1 (#1)\n"));
+            assertTrue(post(client, uri, "a", "list next").contains("\n51. [T][ ] task 51 (#51)\n"));
+            assertTrue(post(client, uri, "b", "list next").contains("\n1. [T][ ] task 1 (#1)\n"));
+            assertTrue(post(client, uri, "a", "list next").contains("\n101. [T][ ] task 101 (#101)\n"));
+
+            assertEquals("Now using the list \"work\" (0 tasks).", post(client, uri, "a", "use work"));
+            assertEquals("Your task list is empty!", post(client, uri, "a", "list"));
+            assertEquals("You are using the list \"tommy\".", post(client, uri, "b", "use"));
+            assertTrue(post(client, uri, "b", "list").contains("120. [T][ ] task 120 (#120)"));
+            assertEquals("You are using the list \"tommy\".", post(client, uri, null, "use"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testSlowReaderDoesNotBlockOtherClients() throws Exception {
+        Path file = tempDir.resolve("tommy.txt");
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 500_000; i++) {
+            lines.add("T | 0 | task " + i);
+        }
+        Files.write(file, lines);
+        TommyServer server = new TommyServer(new Tommy(file.toString(), 0), 0);
+        server.start();
+        try {
+            // Closing the socket before stopping lets a handler stuck writing to it give up.
+            try (Socket slowReader = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+                slowReader.getOutputStream().write(("POST / HTTP/1.1\r\nHost: localhost\r\n"
+                        + "Content-Length: 4\r\n\r\nlist").getBytes(StandardCharsets.US_ASCII));
+                assertEquals('H', slowReader.getInputStream().read());
+
+                HttpClient client = HttpClient.newHttpClient();
+                URI uri = URI.create("http://localhost:" + server.getPort() + "/");
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .POST(HttpRequest.BodyPublishers.ofString("todo read book")).build();
+                HttpResponse<String> added = client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                        .get(10, TimeUnit.SECONDS);
+                assertEquals(200, added.statusCode());
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static String post(HttpClient client, URI uri, String session, String command) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString(command));
+        if (session != null) {
+            request.header(TommyServer.SESSION_HEADER, session);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
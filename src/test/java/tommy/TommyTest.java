@@ -0,0 +1,167 @@
+package tommy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tommy.metrics.Metrics;
+import tommy.task.Task;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TommyTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testListIsPaginated() throws Exception {
+        Tommy tommy = new Tommy(tempDir.resolve("tommy.txt").toString(), 0);
+        for (int i = 1; i <= 120; i++) {
+            tommy.getResponse("todo task " + i);
+        }
+
+        String first = tommy.getResponse("list");
+        assertTrue(first.contains("50. [T][ ] task 50 (#50)\n"));
+        assertFalse(first.contains("51. "));
+        assertTrue(first.endsWith("Showing 1-50 of 120. Type \"list next\" for more.\n"));
+
+        assertTrue(tommy.getResponse("list next").startsWith("Here are the tasks in your list:\n51. "));
+        String last = tommy.getResponse("list next");
+        assertTrue(last.endsWith("120. [T][ ] task 120 (#120)\n"));
+        assertEquals("There are no more tasks to show.", tommy.getResponse("list next"));
+        assertTrue(tommy.getResponse("list page 2").contains("100. [T][ ] task 100 (#100)\n"));
+        assertEquals("There is no page 4; there are 3 pages.", tommy.getResponse("list page 4"));
+    }
+
+    @Test
+    public void testRespondStreamsWholeList() throws Exception {
+        Tommy tommy = new Tommy(tempDir.resolve("tommy.txt").toString(), 0);
+        for (int i = 1; i <= 120; i++) {
+            tommy.getResponse("todo task " + i);
+        }
+
+        StringBuilder out = new StringBuilder();
+        tommy.respond("find task", out);
+        assertEquals(121, out.toString().lines().count());
+        assertTrue(out.toString().endsWith("120. [T][ ] task 120 (#120)\n"));
+    }
+
+    @Test
+    public void testTasksAreAddressedById() throws Exception {
+        Tommy tommy = new Tommy(tempDir.resolve("tommy.txt").toString(), 0);
+        assertEquals("Added todo task.", tommy.getResponse("todo read book"));
+        tommy.getResponse("todo return book");
+        tommy.getResponse("todo meeting");
+
+        assertEquals("Task deleted.", tommy.getResponse("delete #1"));
+        assertEquals("Task marked as done.", tommy.getResponse("mark #3"));
+        assertEquals("There is no task #1.", tommy.getResponse("unmark #1"));
+        assertTrue(tommy.getResponse("list").endsWith("2. [T][X] meeting (#3)\n"));
+        assertEquals("Added todo task.", tommy.getResponse("todo lunch"));
+        assertTrue(tommy.getResponse("list").endsWith("3. [T][ ] lunch (#4)\n"));
+    }
+
+    @Test
+    public void testDeadlineRejectsDateOutOfRange() throws Exception {
+        Tommy tommy = new Tommy(tempDir.resolve("tommy.txt").toString(), 0);
+        assertEquals("That date is too far away.", tommy.getResponse("deadline x /by +999999999-12-31"));
+        assertEquals("Added deadline task.", tommy.getResponse("deadline x /by 9999-12-31"));
+    }
+
+    @Test
+    public void testBulkCommandsApplyToEverySelectedTask() throws Exception {
+        String filePath = tempDir.resolve("tommy.txt").toString();
+        Tommy tommy = new Tommy(filePath, 0);
+        for (int i = 1; i <= 10; i++) {
+            tommy.getResponse("todo task " + i);
+        }
+        tommy.getResponse("deadline report /by 2026-12-01");
+
+        assertEquals("Marked 5 tasks as done.", tommy.getResponse("mark 1-5"));
+        assertEquals("Marked 1 task as not done.", tommy.getResponse("unmark 2-2"));
+        assertEquals("Deleted 3 tasks.", tommy.getResponse("delete 3,7,#10"));
+        assertEquals("Deleted 3 tasks.", tommy.getResponse("delete done"));
+        assertEquals("No matching tasks found.", tommy.getResponse("delete done"));
+        assertEquals("Marked 1 task as done.", tommy.getResponse("mark type:D"));
+        assertEquals("Please provide a valid task number.", tommy.getResponse("mark 1-50"));
+        tommy.close();
+
+        List<Task> loaded = new Storage(filePath, true).load();
+        assertEquals(List.of("2 | T | 0 | task 2", "6 | T | 0 | task 6", "8 | T | 0 | task 8",
+                "9 | T | 0 | task 9", "11 | D | 1 | report | 2026-12-01"),
+                loaded.stream().map(Parser::toFileLine).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testUndoAndRedoAreSaved() throws Exception {
+        String filePath = tempDir.resolve("tommy.txt").toString();
+        Tommy tommy = new Tommy(filePath, 0);
+        assertEquals("Nothing to undo.", tommy.getResponse("undo"));
+        for (int i = 1; i <= 5; i++) {
+            tommy.getResponse("todo task " + i);
+        }
+        tommy.getResponse("mark 1");
+        assertEquals("Marked 3 tasks as done.", tommy.getResponse("mark 1-3"));
+        assertEquals("Deleted 2 tasks.", tommy.getResponse("delete 2,4"));
+
+        assertEquals("Undid deleting 2 tasks.", tommy.getResponse("undo"));
+        assertTrue(tommy.getResponse("list").contains("4. [T][ ] task 4 (#4)\n5. [T][ ] task 5 (#5)\n"));
+        assertEquals("Undid marking 2 tasks as done.", tommy.getResponse("undo"));
+        assertEquals("Redid marking 2 tasks as done.", tommy.getResponse("redo"));
+        assertEquals("Undid marking 2 tasks as done.", tommy.getResponse("undo"));
+        tommy.getResponse("todo lunch");
+        assertEquals("Nothing to redo.", tommy.getResponse("redo"));
+        assertEquals("Undid adding 1 task.", tommy.getResponse("undo"));
+        tommy.close();
+
+        List<Task> loaded = new Storage(filePath, true).load();
+        assertEquals(List.of("1 | T | 1 | task 1", "2 | T | 0 | task 2", "3 | T | 0 | task 3",
+                "4 | T | 0 | task 4", "5 | T | 0 | task 5"),
+                loaded.stream().map(Parser::toFileLine).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testHistoryDepthLimitsUndo() throws Exception {
+        Tommy tommy = new Tommy(tempDir.resolve("tommy.txt").toString(), 0, 2);
+        for (int i = 1; i <= 3; i++) {
+            tommy.getResponse("todo task " + i);
+        }
+        assertEquals("Undid adding 1 task.", tommy.getResponse("undo"));
+        assertEquals("Undid adding 1 task.", tommy.getResponse("undo"));
+        assertEquals("Nothing to undo.", tommy.getResponse("undo"));
+        assertTrue(tommy.getResponse("list").endsWith("1. [T][ ] task 1 (#1)\n"));
+    }
+
+    @Test
+    public void testStatsReportsOwnListSize() throws Exception {
+        Tommy first = new Tommy(tempDir.resolve("first.txt").toString(), 0);
+        first.getResponse("todo read book");
+        Tommy second = new Tommy(tempDir.resolve("second.txt").toString(), 0);
+        second.getResponse("todo lunch");
+        second.getResponse("todo meeting");
+        assertTrue(first.getResponse("stats").startsWith("Tasks in list: 1\n"));
+        assertEquals(2, Metrics.get().getListSize());
+
+        second.close();
+        assertEquals(0, Metrics.get().getListSize());
+        first.close();
+    }
+
+    @Test
+    public void testStatsReportsCommandsAndWrites() throws Exception {
+        Tommy tommy = new Tommy(tempDir.resolve("tommy.txt").toString(), 0);
+        tommy.getResponse("todo read book");
+        tommy.getResponse("find book");
+
+        String stats = tommy.getResponse("stats");
+        assertTrue(stats.startsWith("Tasks in list: 1\n"));
+        assertTrue(stats.contains("\ntodo "));
+        assertTrue(stats.contains("\nfind "));
+        assertTrue(stats.contains("\n(search) "));
+        assertTrue(stats.contains("journal flushes"));
+    }
+}
@@ -0,0 +1,41 @@
+package tommy;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindTest {
+
+    @Test
+    public void testWriteIsQueuedWhenEarlierFailureIsReported() throws Exception {
+        WriteBehind writeBehind = new WriteBehind(() -> { }, 60_000);
+        List<String> written = new CopyOnWriteArrayList<>();
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch failed = new CountDownLatch(1);
+        writeBehind.submit("wait", () -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        writeBehind.submit("mark #3", () -> {
+            throw new IOException("Disk is full");
+        });
+        writeBehind.submit("signal", failed::countDown);
+        gate.countDown();
+        failed.await();
+
+        TommyException e = assertThrows(TommyException.class,
+                () -> writeBehind.submit("add #4", () -> written.add("read book")));
+        assertTrue(e.getMessage().contains("mark #3 (Disk is full)"));
+        assertTrue(e.getMessage().contains("may be lost"));
+        writeBehind.flush();
+        assertEquals(List.of("read book"), written);
+    }
+}
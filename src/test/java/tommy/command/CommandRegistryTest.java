@@ -0,0 +1,30 @@
+package tommy.command;
+
+import org.junit.jupiter.api.Test;
+import tommy.TommyException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandRegistryTest {
+
+    @Test
+    public void testDispatchOnExactCommandWord() throws TommyException {
+        CommandRegistry registry = new CommandRegistry();
+        registry.register("mark", arguments -> "mark:" + arguments);
+        registry.register("marker", arguments -> "marker:" + arguments);
+
+        assertEquals("mark:3", registry.execute("mark 3"));
+        assertEquals("marker:3", registry.execute("  marker   3 "));
+        assertEquals("mark:", registry.execute("mark"));
+        assertThrows(TommyException.class, () -> registry.execute("marked 3"));
+    }
+
+    @Test
+    public void testDuplicateRegistrationRejected() {
+        CommandRegistry registry = new CommandRegistry();
+        registry.register("todo", arguments -> "");
+        assertThrows(IllegalArgumentException.class, () -> registry.register("todo", arguments -> ""));
+        assertEquals(1, registry.size());
+        assertTrue(registry.contains("todo"));
+    }
+}
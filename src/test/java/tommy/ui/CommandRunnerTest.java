@@ -0,0 +1,57 @@
+package tommy.ui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandRunnerTest {
+
+    @Test
+    public void testResponsesKeepSubmissionOrder() {
+        List<String> responses = new CopyOnWriteArrayList<>();
+        List<Boolean> busy = new CopyOnWriteArrayList<>();
+        CommandRunner runner = new CommandRunner(input -> "re: " + input, input -> false, Runnable::run);
+        runner.setBusyListener(busy::add);
+        for (int i = 0; i < 100; i++) {
+            runner.submit("command " + i, responses::add);
+        }
+        runner.shutdown();
+
+        assertEquals(100, responses.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("re: command " + i, responses.get(i));
+        }
+        assertTrue(busy.get(0));
+        assertFalse(busy.get(busy.size() - 1));
+    }
+
+    @Test
+    public void testOnlyQueriesCanBeCancelled() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        List<String> responses = new CopyOnWriteArrayList<>();
+        CommandRunner runner = new CommandRunner(input -> {
+            started.countDown();
+            while (!Thread.currentThread().isInterrupted()) {
+                if (!input.startsWith("find")) {
+                    return "done";
+                }
+            }
+            throw new CancellationException();
+        }, input -> input.startsWith("find"), Runnable::run);
+
+        runner.submit("find slow", responses::add);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(runner.cancel());
+        runner.submit("todo next", responses::add);
+        runner.shutdown();
+
+        assertEquals(List.of("Cancelled: find slow", "done"), responses);
+        assertFalse(runner.cancel());
+    }
+}
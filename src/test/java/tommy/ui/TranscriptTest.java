@@ -0,0 +1,43 @@
+package tommy.ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranscriptTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testOldestMessagesSpillToDisk() throws Exception {
+        Path history = tempDir.resolve("history.txt");
+        List<Message> messages = new ArrayList<>();
+        Transcript transcript = new Transcript(messages, 20, history);
+        for (int i = 0; i < 21; i++) {
+            transcript.add(new Message("message " + i, i % 2 == 0));
+        }
+        transcript.close();
+
+        assertEquals(18, messages.size());
+        assertEquals("message 3", messages.get(0).getText());
+        assertEquals(List.of("> message 0", "message 1", "> message 2"), Files.readAllLines(history));
+    }
+
+    @Test
+    public void testMemoryStaysBounded() {
+        List<Message> messages = new ArrayList<>();
+        Transcript transcript = new Transcript(messages, 100, null);
+        for (int i = 0; i < 100_000; i++) {
+            transcript.add(new Message("message " + i, false));
+            assertTrue(messages.size() <= 100);
+        }
+        assertEquals("message 99999", messages.get(messages.size() - 1).getText());
+    }
+}